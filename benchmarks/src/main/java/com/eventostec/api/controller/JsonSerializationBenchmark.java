@@ -0,0 +1,71 @@
+package com.eventostec.api.controller;
+
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serializes listing and details responses with an {@link ObjectMapper} built the way Spring MVC
+ * builds its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private EventDetailsDTO details;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        details = new EventDetailsDTO(UUID.randomUUID(), "Conferência de Tecnologia",
+                "Palestras, workshops e networking sobre desenvolvimento de software e carreira em tecnologia.",
+                new Date(), "São Paulo", "SP", "https://eventostec-imagens.s3.amazonaws.com/imagem-detail.jpg",
+                "https://www.eventostec.com/eventos/1",
+                IntStream.range(0, 5)
+                        .mapToObj(i -> new EventDetailsDTO.CouponDTO("CUPOM" + i, 10 + i, new Date()))
+                        .toList());
+    }
+
+    @Benchmark
+    public byte[] listing(Listing listing) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listing.events);
+    }
+
+    @Benchmark
+    public byte[] details() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(details);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Listing {
+
+        @Param({"10", "100"})
+        private int pageSize;
+
+        private List<EventResponseDTO> events;
+
+        @Setup
+        public void setUp() {
+            events = IntStream.range(0, pageSize)
+                    .mapToObj(i -> new EventResponseDTO(UUID.randomUUID(), "Conferência de Tecnologia " + i,
+                            "Palestras, workshops e networking sobre desenvolvimento de software e carreira em tecnologia.",
+                            new Date(), "São Paulo", "SP", false, "https://www.eventostec.com/eventos/" + i,
+                            "https://eventostec-imagens.s3.amazonaws.com/" + UUID.randomUUID() + "-list.jpg"))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.eventostec.api.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code --name=value} command line options. Options outside of the known names are kept apart so
+ * they can be handed to the application as Spring properties.
+ */
+final class Args {
+
+    private final Map<String, String> options = new LinkedHashMap<>();
+    private final List<String> passThrough = new ArrayList<>();
+
+    private Args() {
+    }
+
+    static Args parse(String[] args, Set<String> known) {
+        Args parsed = new Args();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, (separator < 0) ? arg.length() : separator);
+            String value = (separator < 0) ? "true" : arg.substring(separator + 1);
+            if (known.contains(name)) {
+                parsed.options.put(name, value);
+            } else {
+                parsed.passThrough.add(arg);
+            }
+        }
+        return parsed;
+    }
+
+    String get(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    long getLong(String name, long defaultValue) {
+        return options.containsKey(name) ? Long.parseLong(options.get(name)) : defaultValue;
+    }
+
+    List<String> passThrough() {
+        return passThrough;
+    }
+}
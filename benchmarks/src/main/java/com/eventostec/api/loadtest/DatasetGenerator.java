@@ -0,0 +1,175 @@
+package com.eventostec.api.loadtest;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.repositories.EventImportRepository;
+import com.eventostec.api.service.AddressService;
+import com.eventostec.api.utils.TimeOrderedUuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds a database with a synthetic catalogue shaped like production, for benchmarks and load
+ * tests.
+ * <p>
+ * Cities follow a Zipf distribution, so a few capitals hold most in-person events and the filter
+ * sees both hot and cold cities. Most events are in the coming months, with a tail up to two
+ * years ahead and some already past. Half of the events have coupons, between one and six, some
+ * of them expired. The same seed always produces the same catalogue, except for the ids.
+ * <p>
+ * Run as a program it seeds a local database through the application itself, so Flyway creates
+ * the schema on Postgres before the rows are written:
+ * <pre>
+ * --url=jdbc:postgresql://localhost:5432/eventostec --username=admin --password=admin --events=1000000
+ * </pre>
+ */
+public final class DatasetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    public static final String[][] CITIES = {
+            {"São Paulo", "SP"}, {"Rio de Janeiro", "RJ"}, {"Belo Horizonte", "MG"}, {"Brasilia", "DF"},
+            {"Curitiba", "PR"}, {"Porto Alegre", "RS"}, {"Recife", "PE"}, {"Salvador", "BA"},
+            {"Fortaleza", "CE"}, {"Florianópolis", "SC"}, {"Campinas", "SP"}, {"Goiânia", "GO"},
+            {"Manaus", "AM"}, {"Belém", "PA"}, {"Vitória", "ES"}, {"Natal", "RN"},
+            {"São José dos Campos", "SP"}, {"Ribeirão Preto", "SP"}, {"Uberlândia", "MG"}, {"Joinville", "SC"},
+            {"Londrina", "PR"}, {"João Pessoa", "PB"}, {"Maceió", "AL"}, {"Teresina", "PI"},
+            {"Campo Grande", "MS"}, {"Cuiabá", "MT"}, {"São Luís", "MA"}, {"Aracaju", "SE"},
+            {"Blumenau", "SC"}, {"Santos", "SP"}, {"Niterói", "RJ"}, {"Juiz de Fora", "MG"},
+            {"Caxias do Sul", "RS"}, {"Maringá", "PR"}, {"Sorocaba", "SP"}, {"Palmas", "TO"},
+            {"Porto Velho", "RO"}, {"Macapá", "AP"}, {"Boa Vista", "RR"}, {"Rio Branco", "AC"}
+    };
+
+    static final String[] FORMATS = {"Conferência", "Meetup", "Workshop", "Hackathon", "Summit", "Bootcamp", "Webinar", "Encontro"};
+    static final String[] TOPICS = {"Java", "Spring", "Kotlin", "React", "Angular", "Python", "Dados", "DevOps",
+            "Kubernetes", "Cloud", "Segurança", "Mobile", "Inteligência Artificial", "Go", "Rust", "Frontend",
+            "Arquitetura", "Testes", "UX", "Carreira"};
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final int CHUNK_SIZE = 5_000;
+    private static final double CITY_SKEW = 1.1;
+    private static final Set<String> OPTIONS = Set.of("url", "username", "password", "events", "seed");
+
+    private DatasetGenerator() {
+        throw new IllegalStateException("Cannot be instantiated");
+    }
+
+    public static void main(String[] args) {
+        Args options = Args.parse(args, OPTIONS);
+        List<String> properties = new ArrayList<>(List.of(
+                "--spring.datasource.username=" + options.get("username", "admin"),
+                "--spring.datasource.password=" + options.get("password", "admin"),
+                "--logging.level.com.eventostec.api.loadtest=INFO"));
+        properties.addAll(options.passThrough());
+
+        try (ConfigurableApplicationContext context = EmbeddedApplication.start(
+                options.get("url", "jdbc:postgresql://localhost:5432/eventostec"), properties)) {
+            seed(context, options.getInt("events", 1_000_000), options.getLong("seed", 42));
+        }
+    }
+
+    public static void seed(ConfigurableApplicationContext context, int events, long seed) {
+        EventImportRepository importRepository = context.getBean(EventImportRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(seed);
+        double[] cityWeights = zipfCumulativeWeights(CITIES.length, CITY_SKEW);
+        long now = System.currentTimeMillis();
+        long started = System.nanoTime();
+
+        for (int start = 0; start < events; start += CHUNK_SIZE) {
+            List<Event> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<Address> addresses = new ArrayList<>(CHUNK_SIZE);
+            for (int i = start; i < Math.min(events, start + CHUNK_SIZE); i++) {
+                Event event = event(random, i, now);
+                chunk.add(event);
+                if (!event.getRemote()) {
+                    String[] city = CITIES[pick(cityWeights, random)];
+                    addresses.add(AddressService.newAddress(TimeOrderedUuid.next(), city[0], city[1], event));
+                }
+            }
+            importRepository.insertAll(chunk, addresses);
+            jdbcTemplate.batchUpdate("INSERT INTO coupon (id, code, discount, valid, single_use, redemptions, event_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    coupons(chunk, random, now));
+
+            if ((start / CHUNK_SIZE) % 20 == 19) {
+                log.info("{} de {} eventos gerados", start + chunk.size(), events);
+            }
+        }
+        log.info("{} eventos gerados em {} s", events, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private static Event event(Random random, int i, long now) {
+        String format = FORMATS[random.nextInt(FORMATS.length)];
+        String topic = TOPICS[random.nextInt(TOPICS.length)];
+        boolean remote = random.nextInt(3) == 0;
+        String imgUrl = random.nextInt(10) == 0 ? "" : "https://eventostec-imagens.s3.amazonaws.com/" + i + ".jpg";
+        return new Event(TimeOrderedUuid.next(), format + " de " + topic + " " + i,
+                format + " com palestras, painéis e networking sobre " + topic + " para pessoas desenvolvedoras de todos os níveis.",
+                imgUrl, null, null, "https://www.eventostec.com/eventos/" + i, remote, new Date(now + dateOffset(random)));
+    }
+
+    /**
+     * One event in ten is past, up to a year ago. Upcoming events decay exponentially with a mean
+     * of three months, capped at two years.
+     */
+    private static long dateOffset(Random random) {
+        if (random.nextInt(10) == 0) {
+            return -(long) (random.nextDouble() * 365 * DAY_MS);
+        }
+        double days = Math.min(730, -Math.log(1 - random.nextDouble()) * 90);
+        return (long) (days * DAY_MS) + 1;
+    }
+
+    private static List<Object[]> coupons(List<Event> events, Random random, long now) {
+        List<Object[]> coupons = new ArrayList<>();
+        for (Event event : events) {
+            if (random.nextBoolean()) {
+                continue;
+            }
+            int count = 1 + random.nextInt(6);
+            for (int c = 0; c < count; c++) {
+                long valid = now + (random.nextInt(5) == 0 ? -1 : 1) * (long) (random.nextDouble() * 180 * DAY_MS);
+                coupons.add(new Object[]{TimeOrderedUuid.next(), "CUPOM" + c, 5 * (1 + random.nextInt(10)),
+                        new Timestamp(valid), false, 0, event.getId()});
+            }
+        }
+        return coupons;
+    }
+
+    private static double[] zipfCumulativeWeights(int size, double skew) {
+        double[] weights = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            weights[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            weights[rank] /= total;
+        }
+        return weights;
+    }
+
+    private static int pick(double[] cumulativeWeights, Random random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
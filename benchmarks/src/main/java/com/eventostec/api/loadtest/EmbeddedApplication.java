@@ -0,0 +1,78 @@
+package com.eventostec.api.loadtest;
+
+import com.eventostec.api.ApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the API in process for benchmarks and load tests, against an in-memory H2 database by
+ * default so they run without a local Postgres.
+ * <p>
+ * The Flyway migrations target PostgreSQL, so on H2 the schema comes from the entities and the
+ * indexes the listing queries rely on are recreated by hand. H2 plans some of these queries
+ * differently, the location filter above all: it cannot read the (uf, city, date) index in date
+ * order, so its gain only shows on Postgres.
+ */
+public final class EmbeddedApplication {
+
+    private EmbeddedApplication() {
+        throw new IllegalStateException("Cannot be instantiated");
+    }
+
+    public static ConfigurableApplicationContext start(List<String> properties) {
+        return start(null, properties);
+    }
+
+    /**
+     * Starts against the given database, migrated by Flyway unless it is H2, or against a fresh
+     * in-memory H2 when {@code jdbcUrl} is null. Credentials go in the URL or in the properties,
+     * which are Spring properties ({@code --name=value}) overriding the defaults below.
+     */
+    public static ConfigurableApplicationContext start(String jdbcUrl, List<String> properties) {
+        boolean h2 = jdbcUrl == null || jdbcUrl.startsWith("jdbc:h2:");
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--search.index.rebuild-interval-ms=3600000",
+                "--event.count.refresh-interval-ms=3600000"));
+        if (jdbcUrl == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:eventostec;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+        } else {
+            args.add("--spring.datasource.url=" + jdbcUrl);
+        }
+        if (h2) {
+            args.add("--spring.flyway.enabled=false");
+            if (jdbcUrl != null) {
+                args.add("--spring.jpa.hibernate.ddl-auto=update");
+            }
+        }
+        args.addAll(properties);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiApplication.class)
+                .run(args.toArray(String[]::new));
+
+        if (h2) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_event_date_id ON event (date, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_address_event_id ON address (event_id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_event_listing_date ON event_listing (date, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_event_listing_uf_city_date ON event_listing (uf_normalized, city_normalized, date, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_event_listing_city_date ON event_listing (city_normalized, date, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_coupon_event_id_valid ON coupon (event_id, valid)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_coupon_event_id_code ON coupon (event_id, code)");
+        }
+        return context;
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
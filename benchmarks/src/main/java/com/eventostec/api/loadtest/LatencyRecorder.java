@@ -0,0 +1,55 @@
+package com.eventostec.api.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps every latency sample of one operation so percentiles are exact. A load test records a
+ * few million samples at most, which is a few megabytes.
+ */
+final class LatencyRecorder {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            if (!success) {
+                errors++;
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = latencyNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Summary summarize(double elapsedSeconds) {
+        lock.lock();
+        try {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return new Summary(count, errors, count / elapsedSeconds,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.90), percentileMs(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    record Summary(long requests, long errors, double throughput, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+    }
+}
@@ -0,0 +1,260 @@
+package com.eventostec.api.loadtest;
+
+import com.eventostec.api.service.EventSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test: a fixed number of clients replay a weighted mix of listing, filter,
+ * search, details and create calls for a while, then p50/p90/p99 latency and throughput are
+ * reported per operation, on the console and as JSON.
+ * <p>
+ * Without {@code --base-url} the API is started in process on H2 and seeded by
+ * {@link DatasetGenerator}, so the test runs offline. Options the driver does not know are passed
+ * to that application, e.g. {@code --spring.threads.virtual.enabled=true}. With
+ * {@code --base-url} it targets an application already running, e.g. on a local Postgres seeded
+ * with {@link DatasetGenerator}.
+ * <p>
+ * Creates send an image when {@code --image-width} is above zero, which makes the mix exercise
+ * uploads too. Without a reachable S3, such as the MinIO from {@code docker-compose.yml}, the
+ * upload fails and the event is created without image, after the time spent trying.
+ */
+public final class LoadDriver {
+
+    enum Operation { LIST, FILTER, SEARCH, DETAILS, CREATE }
+
+    private static final Set<String> OPTIONS = Set.of("base-url", "events", "seed", "clients", "warmup-s",
+            "duration-s", "mix", "image-width", "out");
+    private static final String DEFAULT_MIX = "list=35,filter=25,search=15,details=20,create=5";
+    private static final String BOUNDARY = "loadtest-boundary";
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Operation[] mix;
+    private final List<String> eventIds;
+    private final byte[] image;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+
+    private LoadDriver(String baseUrl, HttpClient client, Operation[] mix, List<String> eventIds, byte[] image) {
+        this.baseUrl = baseUrl;
+        this.client = client;
+        this.mix = mix;
+        this.eventIds = eventIds;
+        this.image = image;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Args options = Args.parse(args, OPTIONS);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("base-url", null);
+        if (baseUrl == null) {
+            System.out.println("Iniciando a API em memória...");
+            context = EmbeddedApplication.start(options.passThrough());
+            DatasetGenerator.seed(context, options.getInt("events", 100_000), options.getLong("seed", 42));
+            context.getBean(EventSearchIndex.class).rebuild();
+            baseUrl = "http://localhost:" + EmbeddedApplication.port(context);
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build()) {
+            LoadDriver driver = new LoadDriver(baseUrl, client, parseMix(options.get("mix", DEFAULT_MIX)),
+                    fetchEventIds(client, baseUrl), jpeg(options.getInt("image-width", 0)));
+            Map<Operation, LatencyRecorder.Summary> summaries = driver.run(options.getInt("clients", 64),
+                    options.getInt("warmup-s", 10), options.getInt("duration-s", 60));
+            report(summaries, Path.of(options.get("out", "target/load-result.json")));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private Map<Operation, LatencyRecorder.Summary> run(int clients, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long end = System.nanoTime() + Duration.ofSeconds(warmupSeconds + durationSeconds).toNanos();
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().name("load-client-" + i).start(() -> {
+                while (System.nanoTime() < end) {
+                    execute(mix[ThreadLocalRandom.current().nextInt(mix.length)]);
+                }
+            }));
+        }
+
+        System.out.printf("Aquecendo por %d s com %d clientes em %s%n", warmupSeconds, clients, baseUrl);
+        Thread.sleep(Duration.ofSeconds(warmupSeconds));
+        recording = true;
+        long started = System.nanoTime();
+        System.out.printf("Medindo por %d s%n", durationSeconds);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<Operation, LatencyRecorder.Summary> summaries = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> summaries.put(operation, recorder.summarize(elapsedSeconds)));
+        return summaries;
+    }
+
+    private void execute(Operation operation) {
+        HttpRequest request = request(operation);
+        long started = System.nanoTime();
+        boolean success;
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            success = status >= 200 && status < 300;
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recording) {
+            recorders.get(operation).record(System.nanoTime() - started, success);
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LIST -> get("/api/event?page=" + random.nextInt(5) + "&size=10");
+            case FILTER -> {
+                // Lower ranks are picked more often, like the cities themselves in the dataset.
+                String[] city = DatasetGenerator.CITIES[Math.min(random.nextInt(DatasetGenerator.CITIES.length), random.nextInt(DatasetGenerator.CITIES.length))];
+                LocalDate today = LocalDate.now();
+                yield get("/api/event/filter?city=" + encode(city[0]) + "&uf=" + city[1]
+                        + "&startDate=" + today + "&endDate=" + today.plusMonths(1 + random.nextInt(12)) + "&size=10");
+            }
+            case SEARCH -> get("/api/event/search?title=" + encode(DatasetGenerator.TOPICS[random.nextInt(DatasetGenerator.TOPICS.length)]) + "&size=10");
+            case DETAILS -> get("/api/event/" + eventIds.get(random.nextInt(eventIds.size())));
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/event"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(createBody()))
+                    .build();
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private byte[] createBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] city = DatasetGenerator.CITIES[random.nextInt(DatasetGenerator.CITIES.length)];
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", "Teste de carga " + UUID.randomUUID());
+        fields.put("description", "Evento criado pelo teste de carga");
+        fields.put("date", String.valueOf(System.currentTimeMillis() + random.nextLong(1, 365L * 86_400_000L)));
+        fields.put("city", city[0]);
+        fields.put("state", city[1]);
+        fields.put("remote", "false");
+        fields.put("eventUrl", "https://www.eventostec.com/teste-de-carga");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        fields.forEach((name, value) -> body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name
+                + "\"\r\n\r\n" + value + "\r\n").getBytes(StandardCharsets.UTF_8)));
+        if (image != null) {
+            body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"image\"; filename=\"teste.jpg\""
+                    + "\r\nContent-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(image);
+            body.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        body.writeBytes(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    /**
+     * Details are requested for the ids of the first upcoming pages, the events users actually
+     * open.
+     */
+    private static List<String> fetchEventIds(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> ids = new ArrayList<>();
+        for (int page = 0; page < 10; page++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/event?size=100&page=" + page)).GET().build();
+            JsonNode events = objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            events.forEach(event -> ids.add(event.get("id").asText()));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No upcoming events to request details for, seed the database first");
+        }
+        return ids;
+    }
+
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(parts[1].trim()); i++) {
+                weighted.add(operation);
+            }
+        }
+        return weighted.toArray(Operation[]::new);
+    }
+
+    private static byte[] jpeg(int width) throws IOException {
+        if (width <= 0) {
+            return null;
+        }
+        int height = width * 9 / 16;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, ((x * 255 / width) << 16) | ((y * 255 / height) << 8) | random.nextInt(64));
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", output);
+        return output.toByteArray();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void report(Map<Operation, LatencyRecorder.Summary> summaries, Path out) throws IOException {
+        System.out.printf("%n%-8s %10s %8s %10s %10s %10s %10s %10s%n", "op", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        summaries.forEach((operation, summary) -> System.out.printf("%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                operation.name().toLowerCase(), summary.requests(), summary.errors(), summary.throughput(),
+                summary.p50Ms(), summary.p90Ms(), summary.p99Ms(), summary.maxMs()));
+
+        Map<String, LatencyRecorder.Summary> byName = new LinkedHashMap<>();
+        summaries.forEach((operation, summary) -> byName.put(operation.name().toLowerCase(), summary));
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(out.toFile(), byName);
+        System.out.println("\nResultados gravados em " + out);
+    }
+}
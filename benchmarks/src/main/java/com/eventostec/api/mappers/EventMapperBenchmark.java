@@ -0,0 +1,31 @@
+package com.eventostec.api.mappers;
+
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventRequestDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMapperBenchmark {
+
+    private EventMapper mapper;
+    private EventRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        mapper = new EventMapperImpl();
+        request = new EventRequestDTO("Conferência de Tecnologia", "Palestras, workshops e networking.",
+                System.currentTimeMillis(), "São Paulo", "SP", false, "https://www.eventostec.com/eventos/1", null);
+    }
+
+    @Benchmark
+    public Event toEntity() {
+        return mapper.toEntity(request, "https://eventostec-imagens.s3.amazonaws.com/imagem.jpg");
+    }
+}
@@ -0,0 +1,134 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.domain.event.EventAddressProjection;
+import com.eventostec.api.domain.event.EventDetailsProjection;
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.loadtest.DatasetGenerator;
+import com.eventostec.api.loadtest.EmbeddedApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the listing and details queries against an embedded database seeded by
+ * {@link DatasetGenerator}. {@code deepPage} and {@code deepCursor} read the same rows, by offset
+ * and by seek.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 500;
+
+    /**
+     * The location filter before the normalized columns, kept to compare against. It runs through
+     * plain JDBC, which only flatters it.
+     */
+    private static final String SUBSTRING_FILTER =
+            "SELECT e.id FROM event e JOIN address a ON e.id = a.event_id " +
+            "WHERE a.city LIKE ? AND a.uf LIKE ? AND e.date >= ? AND e.date <= ? " +
+            "ORDER BY e.date, e.id LIMIT " + (PAGE_SIZE + 1);
+
+    @Param({"100000"})
+    private int events;
+
+    /**
+     * "h2" for an in-memory database, or the JDBC URL of a local Postgres, credentials included,
+     * e.g. {@code -p database=jdbc:postgresql://localhost/eventostec?user=admin&password=admin}.
+     * A database holding fewer events than asked for is seeded first.
+     */
+    @Param({"h2"})
+    private String database;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository repository;
+    private EventFilterRepository filterRepository;
+    private JdbcTemplate jdbcTemplate;
+    private Date now;
+    private Date nextYear;
+    private EventAddressProjection deepCursor;
+    private UUID eventWithCoupons;
+    private List<UUID> pageIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedApplication.start("h2".equals(database) ? null : database, List.of());
+        repository = context.getBean(EventRepository.class);
+        filterRepository = context.getBean(EventFilterRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event", Long.class);
+        if (existing == null || existing < events) {
+            DatasetGenerator.seed(context, events, 42);
+        }
+        now = new Date();
+        nextYear = new Date(now.getTime() + 365 * 86_400_000L);
+
+        List<EventAddressProjection> beforeDeepPage = repository.findUpcomingEvents(now, PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE)).getContent();
+        deepCursor = beforeDeepPage.get(beforeDeepPage.size() - 1);
+        pageIds = beforeDeepPage.stream().map(EventAddressProjection::getId).toList();
+        eventWithCoupons = jdbcTemplate.queryForObject("SELECT event_id FROM coupon WHERE valid > CURRENT_TIMESTAMP LIMIT 1", UUID.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<EventAddressProjection> firstPage() {
+        return repository.findUpcomingEvents(now, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Slice<EventAddressProjection> deepPage() {
+        return repository.findUpcomingEvents(now, PageRequest.of(DEEP_PAGE, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<EventAddressProjection> deepCursor() {
+        return repository.findUpcomingEventsAfter(now, deepCursor.getDate(), deepCursor.getId(), Limit.of(PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<EventAddressProjection> filteredByCity() {
+        return filterRepository.findFilteredEvents(LocationFilter.of("Recife", "PE", LocationFilter.Match.EXACT), now, nextYear, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<EventAddressProjection> filteredByCityPrefix() {
+        return filterRepository.findFilteredEvents(LocationFilter.of("Rec", "PE", LocationFilter.Match.PREFIX), now, nextYear, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UUID> filteredByCitySubstring() {
+        return jdbcTemplate.queryForList(SUBSTRING_FILTER, UUID.class, "%Recife%", "%PE%", now, nextYear);
+    }
+
+    @Benchmark
+    public List<EventAddressProjection> eventsByIds() {
+        return repository.findEventsByIds(pageIds);
+    }
+
+    @Benchmark
+    public List<EventDetailsProjection> eventDetails() {
+        return repository.findEventDetails(eventWithCoupons, now);
+    }
+
+    @Benchmark
+    public long countUpcoming() {
+        return repository.countUpcomingEvents(now);
+    }
+}
@@ -0,0 +1,88 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.utils.TimeOrderedUuid;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts rows keyed by random (v4) or time-ordered (v7) UUIDs into a table with a UUID primary
+ * key, in batches as the import does, and logs the size of the primary key index at the end.
+ * Random keys start to cost more once the index outgrows the cache, so the gap widens with the
+ * number of rows inserted; on Postgres the index of random keys also ends up larger, its pages
+ * split half empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UuidKeyBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidKeyBenchmark.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String INSERT = "INSERT INTO uuid_key_benchmark (id, event_id, created_at) VALUES (?, ?, ?)";
+
+    @Param({"random", "time-ordered"})
+    private String keys;
+
+    /**
+     * "h2" for an in-memory database, or the JDBC URL of a local Postgres, credentials included,
+     * e.g. {@code -p database=jdbc:postgresql://localhost/eventostec?user=admin&password=admin}.
+     * The benchmark works on a table of its own and drops it at the end.
+     */
+    @Param({"h2"})
+    private String database;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private UUID eventId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("h2".equals(database) ? "jdbc:h2:mem:uuid_key_benchmark" : database, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_key_benchmark");
+        jdbcTemplate.execute("CREATE TABLE uuid_key_benchmark (id UUID PRIMARY KEY, event_id UUID NOT NULL, created_at TIMESTAMP NOT NULL)");
+        eventId = UUID.randomUUID();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM uuid_key_benchmark", Long.class);
+        if (!"h2".equals(database)) {
+            jdbcTemplate.execute("VACUUM ANALYZE uuid_key_benchmark");
+            Long indexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size('uuid_key_benchmark_pkey')", Long.class);
+            log.info("chaves {}: {} linhas, indice da chave primaria com {} MB ({} bytes por linha)",
+                    keys, rows, indexBytes / (1024 * 1024), (rows > 0) ? indexBytes / rows : 0);
+        } else {
+            log.info("chaves {}: {} linhas", keys, rows);
+        }
+        jdbcTemplate.execute("DROP TABLE uuid_key_benchmark");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[][] insertBatch() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        return jdbcTemplate.batchUpdate(INSERT, Collections.nCopies(BATCH_SIZE, eventId), BATCH_SIZE, (statement, event) -> {
+            statement.setObject(1, nextKey());
+            statement.setObject(2, event);
+            statement.setTimestamp(3, now);
+        });
+    }
+
+    private UUID nextKey() {
+        return "random".equals(keys) ? UUID.randomUUID() : TimeOrderedUuid.next();
+    }
+}
@@ -0,0 +1,118 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.EventCursor;
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.loadtest.DatasetGenerator;
+import com.eventostec.api.repositories.EventLocationRepository;
+import com.eventostec.api.utils.TextUtil;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries an {@link EventFilterIndex} loaded with millions of synthetic upcoming events, with the
+ * heap capped at 1 GB. The heap used by the loaded index is logged on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class EventFilterIndexBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EventFilterIndexBenchmark.class);
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final int PAGE_SIZE = 10;
+    private static final LocationFilter RECIFE = LocationFilter.of("Recife", "PE", LocationFilter.Match.EXACT);
+    private static final LocationFilter SAO_PREFIX = LocationFilter.of("São", "SP", LocationFilter.Match.PREFIX);
+    private static final LocationFilter SAO_PAULO_STATE = LocationFilter.of("", "SP", LocationFilter.Match.EXACT);
+
+    @Param({"5000000"})
+    private int events;
+
+    private EventFilterIndex index;
+    private Date now;
+    private Date nextYear;
+    private EventCursor middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long heapBefore = usedHeap();
+        index = new EventFilterIndex(new SyntheticLocations(events), true, 1);
+        index.rebuild();
+        log.info("indice com {} eventos ocupa {} MB de heap", events, (usedHeap() - heapBefore) / (1024 * 1024));
+
+        now = new Date();
+        nextYear = new Date(now.getTime() + 365 * DAY_MS);
+        List<UUID> middle = index.filter(RECIFE, new Date(now.getTime() + 180 * DAY_MS), nextYear, 0, 1);
+        middleCursor = new EventCursor(new Date(now.getTime() + 180 * DAY_MS), middle.get(0));
+    }
+
+    @Benchmark
+    public List<UUID> filterByCity() {
+        return index.filter(RECIFE, now, nextYear, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UUID> filterByCityPrefix() {
+        return index.filter(SAO_PREFIX, now, nextYear, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UUID> filterByCityAfterCursor() {
+        return index.filterAfter(RECIFE, now, nextYear, middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long countByCity() {
+        return index.count(RECIFE, now, nextYear);
+    }
+
+    @Benchmark
+    public long countByUf() {
+        return index.count(SAO_PAULO_STATE, now, nextYear);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Streams events spread over the next two years, in date order like the real query, with the
+     * cities skewed towards the first ones of {@link DatasetGenerator#CITIES}.
+     */
+    private static final class SyntheticLocations extends EventLocationRepository {
+
+        private final int events;
+
+        SyntheticLocations(int events) {
+            super(null);
+            this.events = events;
+        }
+
+        @Override
+        public void forEachLocationFrom(Date from, LocationHandler handler) {
+            String[][] cities = Arrays.stream(DatasetGenerator.CITIES)
+                    .map(city -> new String[]{TextUtil.normalize(city[0]), TextUtil.normalize(city[1])})
+                    .toArray(String[][]::new);
+            Random random = new Random(42);
+            long start = System.currentTimeMillis();
+            long step = Math.max(1, 730 * DAY_MS / events);
+            for (int i = 0; i < events; i++) {
+                String[] city = cities[(int) (cities.length * Math.pow(random.nextDouble(), 2))];
+                handler.accept(new UUID(random.nextLong(), random.nextLong()), city[0], city[1], start + i * step);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.EventAddressProjection;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Maps listing projections to {@link EventResponseDTO}. The projections are Spring Data map-backed
+ * proxies, like the ones the repository returns, so getter dispatch is part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMappingBenchmark {
+
+    private EventAddressProjection projection;
+    private List<EventAddressProjection> page;
+
+    @Setup
+    public void setUp() {
+        SpelAwareProxyProjectionFactory factory = new SpelAwareProxyProjectionFactory();
+        page = IntStream.range(0, 10)
+                .mapToObj(i -> factory.createProjection(EventAddressProjection.class, row(i)))
+                .toList();
+        projection = page.get(0);
+    }
+
+    @Benchmark
+    public EventResponseDTO mapOne() {
+        return EventService.toEventResponseDTO(projection);
+    }
+
+    @Benchmark
+    public List<EventResponseDTO> mapPage() {
+        return page.stream().map(EventService::toEventResponseDTO).toList();
+    }
+
+    private static Map<String, Object> row(int i) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", UUID.randomUUID());
+        row.put("title", "Conferência de Tecnologia " + i);
+        row.put("description", "Palestras, workshops e networking sobre desenvolvimento de software e carreira em tecnologia.");
+        row.put("date", new Date(System.currentTimeMillis() + i * 86_400_000L));
+        row.put("imgUrl", "https://eventostec-imagens.s3.amazonaws.com/" + UUID.randomUUID() + "-list.jpg");
+        row.put("eventUrl", "https://www.eventostec.com/eventos/" + i);
+        row.put("remote", i % 3 == 0);
+        row.put("city", (i % 3 == 0) ? null : "São Paulo");
+        row.put("uf", (i % 3 == 0) ? null : "SP");
+        return row;
+    }
+}
@@ -0,0 +1,57 @@
+package com.eventostec.api.utils;
+
+import com.eventostec.api.controller.EventController;
+import com.eventostec.api.domain.event.EventRequestDTO;
+import com.eventostec.api.exceptions.config.ProblemDetails;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionUtilBenchmark {
+
+    @Param({"typeMismatch", "missingParameter", "notValid", "dataIntegrity"})
+    private String exception;
+
+    private MockHttpServletRequest request;
+    private Exception ex;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        request = new MockHttpServletRequest("GET", "/api/event/not-a-uuid");
+        MethodParameter parameter = new MethodParameter(EventController.class.getMethod("getEventDetails", UUID.class), 0);
+
+        ex = switch (exception) {
+            case "typeMismatch" -> new MethodArgumentTypeMismatchException("not-a-uuid", UUID.class, "eventId", parameter,
+                    new IllegalArgumentException("Invalid UUID string: not-a-uuid"));
+            case "missingParameter" -> new MissingServletRequestParameterException("city", "String");
+            case "notValid" -> {
+                BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "eventRequestDTO");
+                bindingResult.addError(new FieldError("eventRequestDTO", "eventUrl", "ftp://evento", false, null, null, "URL inválida"));
+                yield new MethodArgumentNotValidException(new MethodParameter(
+                        EventController.class.getMethod("create", EventRequestDTO.class), 0), bindingResult);
+            }
+            case "dataIntegrity" -> new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            default -> throw new IllegalArgumentException(exception);
+        };
+    }
+
+    @Benchmark
+    public ProblemDetails getProblemDetails() {
+        return ExceptionUtil.getProblemDetails(request, ex);
+    }
+}
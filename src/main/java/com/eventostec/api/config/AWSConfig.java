@@ -1,14 +1,19 @@
 package com.eventostec.api.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 
+import java.net.URI;
+import java.time.Duration;
+
 @Configuration
 public class AWSConfig {
 
@@ -18,17 +23,34 @@ public class AWSConfig {
     private String accessKeyId;
     @Value("${aws.secretKey:}")
     private String secretAccessKey;
+    @Value("${aws.endpoint:}")
+    private String endpoint;
+    @Value("${aws.http.max-connections:50}")
+    private int maxConnections;
+    @Value("${aws.http.connection-acquisition-timeout-ms:10000}")
+    private long connectionAcquisitionTimeoutMs;
 
     @Bean
-    public S3Client createS3Instance() {
+    public S3Client createS3Instance(MeterRegistry meterRegistry) {
+        // Bounds how many uploads talk to S3 at once, with virtual threads the request thread pool no longer does.
         S3ClientBuilder s3ClientBuilder = S3Client.builder()
-                .region(Region.of(awsRegion));
+                .region(Region.of(awsRegion))
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionAcquisitionTimeout(Duration.ofMillis(connectionAcquisitionTimeoutMs)))
+                .overrideConfiguration(configuration -> configuration.addExecutionInterceptor(new S3MetricsInterceptor(meterRegistry)));
 
         if (accessKeyId != null && !accessKeyId.isEmpty() &&
                 secretAccessKey != null && !secretAccessKey.isEmpty()) {
             s3ClientBuilder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey)));
         }
 
+        // Points the client at a local S3 stand-in (MinIO, LocalStack) instead of AWS.
+        if (endpoint != null && !endpoint.isEmpty()) {
+            s3ClientBuilder.endpointOverride(URI.create(endpoint))
+                    .forcePathStyle(true);
+        }
+
         return s3ClientBuilder.build();
     }
 }
@@ -0,0 +1,53 @@
+package com.eventostec.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Limits on the endpoints whose cost grows with the request: search, filter, the upcoming
+ * listing and the export. Event details are left unlimited, they are what the limits protect.
+ * The listing is only limited when it misses the snapshot and the 304, which cost nothing.
+ */
+@Configuration
+public class AdmissionControlConfig {
+
+    @Bean
+    public LoadShedder loadShedder(MeterRegistry meterRegistry,
+                                   @Value("${admission.shedding.max-pool-wait-ms:200}") long maxPoolWaitMs,
+                                   @Value("${admission.shedding.max-latency-ms:1000}") long maxLatencyMs,
+                                   @Value("${admission.shedding.min-shed-ms:5000}") long minShedMs) {
+        return new LoadShedder(meterRegistry, maxPoolWaitMs, maxLatencyMs, minShedMs);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            LoadShedder loadShedder, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.retry-after-ms:1000}") long retryAfterMs,
+            @Value("${admission.search.max-concurrent:4}") int searchMaxConcurrent,
+            @Value("${admission.search.rate-per-second:50}") double searchRate,
+            @Value("${admission.search.burst:100}") int searchBurst,
+            @Value("${admission.filter.max-concurrent:4}") int filterMaxConcurrent,
+            @Value("${admission.filter.rate-per-second:50}") double filterRate,
+            @Value("${admission.filter.burst:100}") int filterBurst,
+            @Value("${admission.listing.max-concurrent:6}") int listingMaxConcurrent,
+            @Value("${admission.listing.rate-per-second:200}") double listingRate,
+            @Value("${admission.listing.burst:400}") int listingBurst,
+            @Value("${admission.export.max-concurrent:1}") int exportMaxConcurrent) {
+        List<AdmissionControlFilter.Endpoint> endpoints = List.of(
+                AdmissionControlFilter.Endpoint.of("search", "/api/event/search", searchMaxConcurrent, searchRate, searchBurst),
+                AdmissionControlFilter.Endpoint.of("filter", "/api/event/filter", filterMaxConcurrent, filterRate, filterBurst),
+                AdmissionControlFilter.Endpoint.whenLoading("listing", "/api/event", listingMaxConcurrent, listingRate, listingBurst),
+                AdmissionControlFilter.Endpoint.streaming("export", "/api/event/export", exportMaxConcurrent, 1, 1));
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(endpoints, loadShedder, objectMapper, meterRegistry, retryAfterMs));
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
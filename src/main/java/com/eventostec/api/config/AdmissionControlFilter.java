@@ -0,0 +1,174 @@
+package com.eventostec.api.config;
+
+import com.eventostec.api.exceptions.AdmissionRejectedException;
+import com.eventostec.api.utils.ExceptionUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the expensive GET endpoints from taking every database connection, so cheap reads such as
+ * event details still get through a traffic spike. Each limited endpoint has a rate limit, answered
+ * with 429, and a concurrency limit, answered with 503 without waiting. While the
+ * {@link LoadShedder} reports overload, all of them are answered with 503. Rejections carry
+ * {@code Retry-After} and are counted in {@code admission.rejected}.
+ * <p>
+ * Endpoints that can often answer from memory, such as the upcoming listing served from its
+ * snapshot or with a 304, are limited only when the handler is about to query the database,
+ * through {@link #admit(HttpServletRequest)}.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String ADMISSION_ATTRIBUTE = AdmissionControlFilter.class.getName() + ".admission";
+
+    private final Map<String, Endpoint> endpoints;
+    private final LoadShedder loadShedder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long retryAfterMs;
+
+    public AdmissionControlFilter(List<Endpoint> endpoints, LoadShedder loadShedder, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry, long retryAfterMs) {
+        this.endpoints = endpoints.stream().collect(Collectors.toMap(Endpoint::path, Function.identity()));
+        this.loadShedder = loadShedder;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Endpoint endpoint = "GET".equals(request.getMethod()) ? endpoints.get(request.getRequestURI()) : null;
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Admission admission = new Admission(endpoint);
+        if (endpoint.deferred()) {
+            request.setAttribute(ADMISSION_ATTRIBUTE, admission);
+        } else {
+            try {
+                admission.acquire();
+            } catch (AdmissionRejectedException e) {
+                reject(request, response, e);
+                return;
+            }
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+
+    /**
+     * Applies the limits of a deferred endpoint to the current request, before it queries the
+     * database. Does nothing for other requests or when the admission control is disabled.
+     *
+     * @throws AdmissionRejectedException when the request is over a limit
+     */
+    public static void admit(HttpServletRequest request) {
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission) {
+            admission.acquire();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, AdmissionRejectedException rejection) throws IOException {
+        response.setStatus(rejection.getStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ExceptionUtil.getProblemDetails(request, rejection));
+    }
+
+    /**
+     * The permit of one request, taken at most once and released when the request ends.
+     */
+    private final class Admission {
+
+        private final Endpoint endpoint;
+        private long acquiredAt;
+        private boolean acquired;
+
+        private Admission(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void acquire() {
+            if (acquired) {
+                return;
+            }
+            if (loadShedder.overloaded()) {
+                throw rejected("overload", HttpStatus.SERVICE_UNAVAILABLE, retryAfterMs);
+            }
+            long rateLimitedNanos = endpoint.rateLimit().tryAcquire();
+            if (rateLimitedNanos > 0) {
+                throw rejected("rate", HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toMillis(rateLimitedNanos));
+            }
+            if (!endpoint.permits().tryAcquire()) {
+                throw rejected("concurrency", HttpStatus.SERVICE_UNAVAILABLE, retryAfterMs);
+            }
+            acquired = true;
+            acquiredAt = System.nanoTime();
+        }
+
+        void release() {
+            if (!acquired) {
+                return;
+            }
+            endpoint.permits().release();
+            if (endpoint.tracksLatency()) {
+                loadShedder.recordLatency(System.nanoTime() - acquiredAt);
+            }
+        }
+
+        private AdmissionRejectedException rejected(String reason, HttpStatus status, long retryAfterMs) {
+            Counter.builder("admission.rejected")
+                    .description("Requests rejected by the admission control")
+                    .tag("endpoint", endpoint.name())
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+            return new AdmissionRejectedException(status, Math.max(1L, (retryAfterMs + 999) / 1000));
+        }
+    }
+
+    /**
+     * A limited GET endpoint, matched by its exact path. Streaming endpoints take as long as the
+     * client reads, so their latency is left out of the {@link LoadShedder}. Deferred endpoints are
+     * limited from {@link #admit(HttpServletRequest)}, and their latency is measured from there.
+     */
+    public record Endpoint(String name, String path, Semaphore permits, TokenBucket rateLimit, boolean tracksLatency,
+                           boolean deferred) {
+
+        public static Endpoint of(String name, String path, int maxConcurrent, double permitsPerSecond, int burst) {
+            return new Endpoint(name, path, new Semaphore(maxConcurrent), new TokenBucket(permitsPerSecond, burst), true, false);
+        }
+
+        public static Endpoint streaming(String name, String path, int maxConcurrent, double permitsPerSecond, int burst) {
+            return new Endpoint(name, path, new Semaphore(maxConcurrent), new TokenBucket(permitsPerSecond, burst), false, false);
+        }
+
+        public static Endpoint whenLoading(String name, String path, int maxConcurrent, double permitsPerSecond, int burst) {
+            return new Endpoint(name, path, new Semaphore(maxConcurrent), new TokenBucket(permitsPerSecond, burst), true, true);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.eventostec.api.config;
 
+import com.eventostec.api.controller.EventController;
+import com.eventostec.api.domain.event.EventCursor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,6 +16,7 @@ public class CorsConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry){
         registry.addMapping("/**")
                 .allowedOrigins("*")
-                .allowedMethods("GET", "POST", "PUT");
+                .allowedMethods("GET", "POST", "PUT")
+                .exposedHeaders(EventCursor.NEXT_CURSOR_HEADER, EventController.TOTAL_ESTIMATE_HEADER, HttpHeaders.ETAG);
     }
 }
@@ -0,0 +1,31 @@
+package com.eventostec.api.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and
+ * {@link #stop()}, which is how the statements run by each request are measured.
+ */
+public class HibernateStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    static void start() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return (statements != null) ? statements[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,104 @@
+package com.eventostec.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Tells when the service is overloaded, from the mean wait for a pool connection and the mean
+ * latency of the limited endpoints over the last sampling interval. The wait is read from the
+ * Hikari {@code hikaricp.connections.acquire} timers of every pool, the latency is recorded by
+ * {@link AdmissionControlFilter}.
+ * <p>
+ * Shedding starts as soon as a sample is over either limit, and stops only once both are back
+ * under half of their limit and no sample has been over them for the minimum shed time. While
+ * shedding, the limited endpoints record hardly any latency, so an interval without it must not
+ * end the shedding by itself; the pool wait, which the unlimited reads keep measuring, decides.
+ */
+@Slf4j
+public class LoadShedder {
+
+    private static final String POOL_WAIT_TIMER = "hikaricp.connections.acquire";
+
+    private final MeterRegistry meterRegistry;
+    private final long maxPoolWaitMs;
+    private final long maxLatencyMs;
+    private final long minShedMs;
+    private final LongSupplier clock;
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+
+    private double poolWaitNanos;
+    private long poolWaitCount;
+    private long lastOverloadedAt;
+    private volatile boolean overloaded;
+
+    public LoadShedder(MeterRegistry meterRegistry, long maxPoolWaitMs, long maxLatencyMs, long minShedMs) {
+        this(meterRegistry, maxPoolWaitMs, maxLatencyMs, minShedMs, System::currentTimeMillis);
+    }
+
+    LoadShedder(MeterRegistry meterRegistry, long maxPoolWaitMs, long maxLatencyMs, long minShedMs, LongSupplier clock) {
+        this.meterRegistry = meterRegistry;
+        this.maxPoolWaitMs = maxPoolWaitMs;
+        this.maxLatencyMs = maxLatencyMs;
+        this.minShedMs = minShedMs;
+        this.clock = clock;
+        Gauge.builder("admission.overloaded", this, shedder -> shedder.overloaded ? 1 : 0)
+                .description("Whether the expensive endpoints are being shed")
+                .register(meterRegistry);
+    }
+
+    public boolean overloaded() {
+        return overloaded;
+    }
+
+    public void recordLatency(long nanos) {
+        latencyNanos.add(nanos);
+        latencyCount.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${admission.shedding.sample-interval-ms:500}")
+    public void sample() {
+        double waitNanos = 0;
+        long waitCount = 0;
+        for (Timer timer : meterRegistry.find(POOL_WAIT_TIMER).timers()) {
+            waitNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+            waitCount += timer.count();
+        }
+        long poolWaitMs = mean(waitNanos - poolWaitNanos, waitCount - poolWaitCount);
+        poolWaitNanos = waitNanos;
+        poolWaitCount = waitCount;
+
+        long latencyMs = mean(latencyNanos.sumThenReset(), latencyCount.sumThenReset());
+
+        long now = clock.getAsLong();
+        boolean nowOverloaded;
+        if (poolWaitMs > maxPoolWaitMs || latencyMs > maxLatencyMs) {
+            lastOverloadedAt = now;
+            nowOverloaded = true;
+        } else if (overloaded) {
+            boolean recovered = poolWaitMs <= maxPoolWaitMs / 2 && latencyMs <= maxLatencyMs / 2;
+            nowOverloaded = !recovered || now - lastOverloadedAt < minShedMs;
+        } else {
+            nowOverloaded = false;
+        }
+        if (nowOverloaded != overloaded) {
+            if (nowOverloaded) {
+                log.warn("sobrecarga, descartando buscas e listagens: espera pelo pool de {} ms, latência de {} ms", poolWaitMs, latencyMs);
+            } else {
+                log.info("carga normalizada, buscas e listagens voltam a ser atendidas");
+            }
+        }
+        overloaded = nowOverloaded;
+    }
+
+    private static long mean(double totalNanos, long count) {
+        return (count > 0) ? TimeUnit.NANOSECONDS.toMillis((long) (totalNanos / count)) : 0L;
+    }
+}
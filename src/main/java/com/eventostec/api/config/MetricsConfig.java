@@ -0,0 +1,33 @@
+package com.eventostec.api.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics the actuator does not record by itself. Endpoints, Spring Data repositories and the
+ * Hikari pool are instrumented out of the box; here come the JDBC repositories ({@code @Timed}),
+ * Hibernate statements per request and, in {@link AWSConfig}, S3 calls.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new HibernateStatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<HibernateStatementMetricsFilter> hibernateStatementMetricsFilter(MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(new HibernateStatementMetricsFilter(meterRegistry));
+    }
+}
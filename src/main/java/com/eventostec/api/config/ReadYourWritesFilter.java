@@ -0,0 +1,69 @@
+package com.eventostec.api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Lets clients read their own writes despite replication lag. Requests that write read from the
+ * primary, and so do the next requests of the same client for a while. The deadline travels in a
+ * cookie, so it holds whichever instance serves those requests.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "primary-reads-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long stickyMs;
+
+    public ReadYourWritesFilter(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + stickyMs));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.ceil(stickyMs / 1000.0));
+            response.addCookie(cookie);
+        }
+        if (!write && primaryReadsUntil(request) <= now) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReplicaDataSource.startPrimaryReads();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaDataSource.endPrimaryReads();
+        }
+    }
+
+    private static long primaryReadsUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0L;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+}
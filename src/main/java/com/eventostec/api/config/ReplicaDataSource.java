@@ -0,0 +1,145 @@
+package com.eventostec.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Connections for read-only transactions, set as the read-only target of a
+ * {@link LazyConnectionDataSourceProxy} over the primary.
+ * <p>
+ * Replicas are used in turn, skipping those that are down or whose replication lag exceeds the
+ * allowed delay, both checked on a schedule. Replicas are only used once a check found them
+ * healthy. Without a usable replica, or while the current thread must see its own writes, the
+ * connection comes from the primary.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<? extends DataSource> replicas, String lagQuery, long maxLagMs) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(index -> new Replica(index, replicas.get(index)))
+                .toList();
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    /**
+     * Sends the reads of the current thread to the primary until {@link #endPrimaryReads()}.
+     */
+    static void startPrimaryReads() {
+        PRIMARY_READS.set(Boolean.TRUE);
+    }
+
+    static void endPrimaryReads() {
+        PRIMARY_READS.remove();
+    }
+
+    /**
+     * Runs the reads of the supplier on the primary, for loads that must see writes made just
+     * before on this instance. Connections already taken by the current thread are kept.
+     */
+    public static <T> T readFromPrimary(Supplier<T> reads) {
+        if (PRIMARY_READS.get() != null) {
+            return reads.get();
+        }
+        startPrimaryReads();
+        try {
+            return reads.get();
+        } finally {
+            endPrimaryReads();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY_READS.get() == null) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.usable) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.usable = false;
+                    log.warn("réplica {} indisponível, leituras vão para o primário: {}", replica.index, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replicas use the credentials of their pools");
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            long lagMs = lagMs(replica);
+            boolean usable = lagMs <= maxLagMs;
+            if (usable != replica.usable) {
+                if (usable) {
+                    log.info("réplica {} disponível para leituras", replica.index);
+                } else {
+                    log.warn("réplica {} fora das leituras, atraso de {} ms", replica.index, (lagMs == Long.MAX_VALUE) ? "?" : lagMs);
+                }
+            }
+            replica.usable = usable;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private long lagMs(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            return result.next() ? result.getLong(1) : Long.MAX_VALUE;
+        } catch (SQLException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static final class Replica {
+
+        private final int index;
+        private final DataSource dataSource;
+        private volatile boolean usable;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+    }
+}
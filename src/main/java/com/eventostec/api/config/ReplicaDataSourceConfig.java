@@ -0,0 +1,95 @@
+package com.eventostec.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Routes read-only transactions to read replicas when {@code DB_REPLICA_URLS} lists any, otherwise
+ * Spring Boot sets up the single datasource as usual.
+ * <p>
+ * The datasource handed to JPA and Flyway is a {@link LazyConnectionDataSourceProxy}, which only
+ * picks the physical connection at the first statement, once the transaction has marked it
+ * read-only. Read-only transactions get it from the {@link ReplicaDataSource}, everything else
+ * from the primary. Replicas use the same credentials as the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Zero when the replica has replayed everything it received, or is not a replica at all, as
+     * with a second local database standing in for one in development.
+     */
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               DataSourceProperties properties,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${datasource.replicas.urls}") String urls,
+                                               @Value("${datasource.replicas.pool-size:10}") int poolSize,
+                                               @Value("${datasource.replicas.connection-timeout-ms:1000}") long connectionTimeoutMs,
+                                               @Value("${datasource.replicas.max-lag-ms:1000}") long maxLagMs) {
+        List<String> replicaUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        List<HikariDataSource> replicas = IntStream.range(0, replicaUrls.size())
+                .mapToObj(index -> replicaPool(replicaUrls.get(index), index, properties, meterRegistry, poolSize, connectionTimeoutMs))
+                .toList();
+        return new ReplicaDataSource(primaryDataSource, replicas, LAG_QUERY, maxLagMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(@Value("${datasource.replicas.sticky-ms:5000}") long stickyMs) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyMs));
+    }
+
+    /**
+     * A replica that is down at startup must not keep the application from starting, its pool is
+     * created without connecting and the health check enables it once it answers.
+     */
+    private static HikariDataSource replicaPool(String url, int index, DataSourceProperties properties, MeterRegistry meterRegistry,
+                                                int poolSize, long connectionTimeoutMs) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica-" + index);
+        replica.setJdbcUrl(url);
+        replica.setUsername(properties.determineUsername());
+        replica.setPassword(properties.determinePassword());
+        replica.setMaximumPoolSize(poolSize);
+        replica.setConnectionTimeout(connectionTimeoutMs);
+        replica.setInitializationFailTimeout(-1);
+        replica.setReadOnly(true);
+        replica.setMetricRegistry(meterRegistry);
+        return replica;
+    }
+}
@@ -0,0 +1,70 @@
+package com.eventostec.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every S3 call by operation and outcome, retries included, and records the bytes sent by
+ * uploads.
+ */
+public class S3MetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("MetricsStartNanos");
+    private static final Set<String> UPLOAD_OPERATIONS = Set.of("PutObject", "UploadPart");
+
+    private final MeterRegistry meterRegistry;
+
+    public S3MetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        if (!UPLOAD_OPERATIONS.contains(operation)) {
+            return;
+        }
+        context.httpRequest().firstMatchingHeader("Content-Length").ifPresent(length ->
+                DistributionSummary.builder("s3.upload.bytes")
+                        .baseUnit("bytes")
+                        .tag("operation", operation)
+                        .register(meterRegistry)
+                        .record(Long.parseLong(length)));
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "success");
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "error");
+    }
+
+    private void record(ExecutionAttributes executionAttributes, String outcome) {
+        Long start = executionAttributes.getAttribute(START_NANOS);
+        if (start == null) {
+            return;
+        }
+        Timer.builder("s3.requests")
+                .tag("operation", executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
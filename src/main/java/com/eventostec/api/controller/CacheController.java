@@ -0,0 +1,24 @@
+package com.eventostec.api.controller;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.service.EventCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final EventCache eventCache;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getStats() {
+        return ResponseEntity.ok(eventCache.stats());
+    }
+}
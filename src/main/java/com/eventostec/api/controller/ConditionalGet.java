@@ -0,0 +1,90 @@
+package com.eventostec.api.controller;
+
+import com.eventostec.api.service.EventCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Conditional GET for the event endpoints, answered from an {@link EventCache.Version} before any
+ * query runs.
+ * <p>
+ * The strong ETag carries the instance, the version counter and the time until which the response
+ * stays valid. A response can change without any write, when an event starts or a coupon expires,
+ * and writes made by other instances are not counted, so a tag is honoured until the first of
+ * those deadlines and for at most a ttl. Last-Modified is only informational for the same reason,
+ * If-Modified-Since is not honoured, and {@code Cache-Control: no-cache} makes clients revalidate
+ * instead of guessing a freshness from it.
+ */
+final class ConditionalGet {
+
+    private static final String SEPARATOR = "-";
+
+    private ConditionalGet() {
+        throw new IllegalStateException("Cannot be instantiated");
+    }
+
+    static <T> ResponseEntity<T> respond(String ifNoneMatch, EventCache.Version version, long ttlMs,
+                                         Supplier<ResponseEntity<T>> response, ToLongFunction<T> validUntil) {
+        return respond(ifNoneMatch, version, "", ttlMs, response, validUntil);
+    }
+
+    /**
+     * For responses with several representations, such as a gzipped one, which a strong ETag must
+     * tell apart. The variant is appended to the tag.
+     */
+    static <T> ResponseEntity<T> respond(String ifNoneMatch, EventCache.Version version, String variant, long ttlMs,
+                                         Supplier<ResponseEntity<T>> response, ToLongFunction<T> validUntil) {
+        long now = System.currentTimeMillis();
+        String suffix = variant.isEmpty() ? "" : SEPARATOR + variant;
+        Optional<ETag> unchanged = matchingTag(ifNoneMatch, version, suffix, now);
+        if (unchanged.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(unchanged.get().formattedTag())
+                    .lastModified(version.modifiedAt())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        ResponseEntity<T> fresh = version.load(response);
+        long expiresAt = Math.min(now + ttlMs, validUntil.applyAsLong(fresh.getBody()));
+        return ResponseEntity.status(fresh.getStatusCode())
+                .headers(fresh.getHeaders())
+                .eTag(new ETag(prefix(version) + Long.toString(expiresAt, 36) + suffix, false).formattedTag())
+                .lastModified(version.modifiedAt())
+                .cacheControl(CacheControl.noCache())
+                .body(fresh.getBody());
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so a tag weakened by a proxy still matches.
+     */
+    private static Optional<ETag> matchingTag(String ifNoneMatch, EventCache.Version version, String suffix, long now) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        String prefix = prefix(version);
+        return ETag.parse(ifNoneMatch).stream()
+                .filter(eTag -> !eTag.isWildcard() && eTag.tag().length() > prefix.length() + suffix.length()
+                        && eTag.tag().startsWith(prefix) && eTag.tag().endsWith(suffix))
+                .filter(eTag -> expiresAt(eTag.tag().substring(prefix.length(), eTag.tag().length() - suffix.length())) > now)
+                .findFirst();
+    }
+
+    private static String prefix(EventCache.Version version) {
+        return version.instance() + SEPARATOR + version.counter() + SEPARATOR;
+    }
+
+    private static long expiresAt(String encoded) {
+        try {
+            return Long.parseLong(encoded, 36);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.eventostec.api.controller;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
+import com.eventostec.api.domain.coupon.CouponRedeemRequestDTO;
+import com.eventostec.api.domain.coupon.CouponRedeemResponseDTO;
+import com.eventostec.api.service.CouponRedemptionService;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
 import com.eventostec.api.service.CouponService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -15,10 +26,35 @@ import java.util.UUID;
 public class CouponController {
 
     private final CouponService couponService;
+    private final CouponRedemptionService couponRedemptionService;
 
     @PostMapping("/event/{eventId}")
     public ResponseEntity<Coupon> addCouponsToEvent(@PathVariable UUID eventId, @RequestBody CouponRequestDTO data) {
         Coupon coupons = couponService.addCouponToEvent(eventId, data);
         return ResponseEntity.ok(coupons);
     }
+
+    /**
+     * Responds with the generated codes as plain text, one per line, written as they are sent
+     * instead of being serialized into a single JSON document first.
+     */
+    @PostMapping(value = "/event/{eventId}/batch", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> generateCoupons(@PathVariable UUID eventId, @Valid @RequestBody CouponBatchRequestDTO data) {
+        List<String> codes = couponService.generateCoupons(eventId, data);
+        StreamingResponseBody body = output -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            for (String code : codes) {
+                writer.write(code);
+                writer.write('\n');
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(body);
+    }
+
+    @PostMapping("/redeem")
+    public ResponseEntity<CouponRedeemResponseDTO> redeem(@Valid @RequestBody CouponRedeemRequestDTO data) {
+        CouponRedeemResponseDTO redemption = couponRedemptionService.redeem(data.eventId(), data.code());
+        return ResponseEntity.ok(redemption);
+    }
 }
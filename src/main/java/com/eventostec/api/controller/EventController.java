@@ -1,18 +1,40 @@
 package com.eventostec.api.controller;
 
+import com.eventostec.api.config.AdmissionControlFilter;
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventCursor;
 import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventImportResultDTO;
 import com.eventostec.api.domain.event.EventRequestDTO;
 import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.service.EventArchiveService;
+import com.eventostec.api.service.EventCache;
+import com.eventostec.api.service.EventCountService;
+import com.eventostec.api.service.EventExportService;
+import com.eventostec.api.service.EventImportService;
+import com.eventostec.api.service.EventListingService;
 import com.eventostec.api.service.EventService;
+import com.eventostec.api.service.UpcomingPagesSnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -20,7 +42,27 @@ import java.util.UUID;
 @RequestMapping("/api/event")
 public class EventController {
 
+    public static final String TOTAL_ESTIMATE_HEADER = "X-Total-Count-Estimate";
+
+    /**
+     * Largest page any listing serves, larger sizes are rejected rather than clamped so that page
+     * offsets keep their meaning.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String GZIP = "gzip";
+
     private final EventService eventService;
+    private final EventCountService eventCountService;
+    private final EventImportService eventImportService;
+    private final EventExportService eventExportService;
+    private final EventArchiveService eventArchiveService;
+    private final EventListingService eventListingService;
+    private final EventCache eventCache;
+    private final UpcomingPagesSnapshot upcomingPagesSnapshot;
+
+    @Value("${http.etag.ttl-ms:30000}")
+    private long eTagTtlMs;
 
     @PostMapping(consumes = "multipart/form-data")
     public ResponseEntity<Event> create(@Valid @ModelAttribute EventRequestDTO eventRequestDTO) {
@@ -28,33 +70,109 @@ public class EventController {
         return ResponseEntity.ok(newEvent);
     }
 
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<EventImportResultDTO> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(eventImportService.importNdjson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<EventImportResultDTO> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(eventImportService.importCsv(body));
+    }
+
+    /**
+     * Written straight to the response on the request thread, chunked, while the rows are read.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportNdjson(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events.ndjson\"");
+        eventExportService.exportNdjson(response.getOutputStream());
+    }
+
     @GetMapping("/{eventId}")
-    public ResponseEntity<EventDetailsDTO> getEventDetails(@PathVariable UUID eventId) {
-        EventDetailsDTO eventDetails = eventService.getEventDetails(eventId);
-        return ResponseEntity.ok(eventDetails);
+    public ResponseEntity<EventDetailsDTO> getEventDetails(@PathVariable UUID eventId,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(ifNoneMatch, eventCache.detailsVersion(), eTagTtlMs,
+                () -> ResponseEntity.ok(eventService.getEventDetails(eventId)),
+                EventCache::firstCouponExpiration);
     }
 
     @GetMapping
-    public ResponseEntity<List<EventResponseDTO>> getEvents(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size){
-        List<EventResponseDTO> allEvents = this.eventService.getUpcomingEvents(page, size);
-        return ResponseEntity.ok(allEvents);
+    public ResponseEntity<?> getEvents(@RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size,
+                                       @RequestParam(required = false) EventCursor cursor,
+                                       @RequestParam(defaultValue = "false") boolean includeTotal,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                       HttpServletRequest request){
+        EventCache.Version version = eventCache.listingsVersion();
+        Optional<UpcomingPagesSnapshot.SerializedPage> snapshot = cursor == null
+                ? upcomingPagesSnapshot.getPage(page, size, version)
+                : Optional.empty();
+        if (snapshot.isPresent()) {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            return ConditionalGet.respond(ifNoneMatch, version, gzip ? GZIP : "", eTagTtlMs, () -> {
+                Long total = includeTotal ? this.eventCountService.estimateUpcomingEvents() : null;
+                return toSnapshotResponse(snapshot.get(), gzip, total);
+            }, body -> snapshot.get().validUntil());
+        }
+        return ConditionalGet.respond(ifNoneMatch, version, eTagTtlMs, () -> {
+            AdmissionControlFilter.admit(request);
+            List<EventResponseDTO> allEvents = cursor != null
+                    ? this.eventService.getUpcomingEvents(cursor, size)
+                    : this.eventService.getUpcomingEvents(page, size);
+            Long total = includeTotal ? this.eventCountService.estimateUpcomingEvents() : null;
+            return listingResponse(nextCursor(allEvents, size), total)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .body(allEvents);
+        }, EventCache::firstEventStart);
     }
 
     @GetMapping("/filter")
     public ResponseEntity<List<EventResponseDTO>> getFilteredEvents(@RequestParam(defaultValue = "0") int page,
-                                                                    @RequestParam(defaultValue = "10") int size,
+                                                                    @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size,
                                                                     @RequestParam String city,
                                                                     @RequestParam String uf,
+                                                                    @RequestParam(defaultValue = "CONTAINS") LocationFilter.Match match,
                                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
-                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
-        List<EventResponseDTO> events = eventService.getFilteredEvents(page, size, city, uf, startDate, endDate);
-        return ResponseEntity.ok(events);
+                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate,
+                                                                    @RequestParam(required = false) EventCursor cursor,
+                                                                    @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LocationFilter location = LocationFilter.of(city, uf, match);
+        return ConditionalGet.respond(ifNoneMatch, eventCache.listingsVersion(), eTagTtlMs, () -> {
+            List<EventResponseDTO> events = cursor != null
+                    ? eventService.getFilteredEvents(cursor, size, location, startDate, endDate)
+                    : eventService.getFilteredEvents(page, size, location, startDate, endDate);
+            Long total = includeTotal ? eventCountService.estimateFilteredEvents(location, startDate, endDate) : null;
+            return toListingResponse(events, size, total);
+        }, events -> Long.MAX_VALUE);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<EventResponseDTO>> getSearchEvents(@RequestParam String title) {
-        List<EventResponseDTO> events = eventService.searchEvents(title);
-        return ResponseEntity.ok(events);
+    public ResponseEntity<List<EventResponseDTO>> getSearchEvents(@RequestParam String title,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size,
+                                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(ifNoneMatch, eventCache.listingsVersion(), eTagTtlMs,
+                () -> ResponseEntity.ok(eventService.searchEvents(title, page, size)),
+                events -> Long.MAX_VALUE);
+    }
+
+    @GetMapping("/archive/{eventId}")
+    public ResponseEntity<EventDetailsDTO> getArchivedEvent(@PathVariable UUID eventId) {
+        return ResponseEntity.ok(eventArchiveService.getArchivedEvent(eventId));
+    }
+
+    /**
+     * Answers as soon as the rebuild has started, or with 409 while one is still running.
+     */
+    @PostMapping("/listing/rebuild")
+    public ResponseEntity<Void> rebuildListing(@RequestBody String adminKey) {
+        boolean started = eventListingService.startRebuild(adminKey);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).build();
     }
 
     @DeleteMapping("/{eventId}")
@@ -62,4 +180,56 @@ public class EventController {
         eventService.deleteEvent(eventId, adminKey);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * A full page may be followed by more events, so the cursor to seek past its last element is
+     * returned in a header. Both page and cursor requests get it, letting clients switch to
+     * cursors after the first page. Listings never run a COUNT, the total is only sent, as an
+     * estimate, when the client asked for it.
+     */
+    private static ResponseEntity<List<EventResponseDTO>> toListingResponse(List<EventResponseDTO> events, int size, Long totalEstimate) {
+        return listingResponse(nextCursor(events, size), totalEstimate).body(events);
+    }
+
+    private static String nextCursor(List<EventResponseDTO> events, int size) {
+        return (!events.isEmpty() && events.size() == size) ? EventCursor.of(events.get(events.size() - 1)).encode() : null;
+    }
+
+    /**
+     * Snapshot pages are written as they are, gzipped when the client accepts it. The upcoming
+     * listing varies by Accept-Encoding whichever way it is served.
+     */
+    private static ResponseEntity<byte[]> toSnapshotResponse(UpcomingPagesSnapshot.SerializedPage page, boolean gzip, Long totalEstimate) {
+        ResponseEntity.BodyBuilder response = listingResponse(page.nextCursor(), totalEstimate)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(gzip ? page.gzip() : page.json());
+    }
+
+    private static ResponseEntity.BodyBuilder listingResponse(String nextCursor, Long totalEstimate) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(EventCursor.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        if (totalEstimate != null) {
+            response.header(TOTAL_ESTIMATE_HEADER, String.valueOf(totalEstimate));
+        }
+        return response;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
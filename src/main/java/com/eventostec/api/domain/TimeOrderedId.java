@@ -0,0 +1,18 @@
+package com.eventostec.api.domain;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the UUID primary key with {@link com.eventostec.api.utils.TimeOrderedUuid} when the
+ * entity is persisted, in place of {@code @GeneratedValue} and its random UUIDs.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -1,5 +1,6 @@
 package com.eventostec.api.domain.address;
 
+import com.eventostec.api.domain.TimeOrderedId;
 import com.eventostec.api.domain.event.Event;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.Date;
 import java.util.UUID;
 
 @Table(name = "address")
@@ -17,12 +19,20 @@ import java.util.UUID;
 @NoArgsConstructor
 public class Address {
     @Id
-    @GeneratedValue
+    @TimeOrderedId
     private UUID id;
 
     private String city;
     private String uf;
 
+    /**
+     * Accent-folded, lower-cased copies of city and uf, and a copy of the event date, so the
+     * location filter can match and sort on a single index of this table.
+     */
+    private String cityNormalized;
+    private String ufNormalized;
+    private Date eventDate;
+
     @OneToOne
     @JoinColumn(name = "event_id")
     private Event event;
@@ -1,5 +1,6 @@
 package com.eventostec.api.domain.coupon;
 
+import com.eventostec.api.domain.TimeOrderedId;
 import com.eventostec.api.domain.event.Event;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -18,14 +19,17 @@ import java.util.UUID;
 @NoArgsConstructor
 public class Coupon {
     @Id
-    @GeneratedValue
+    @TimeOrderedId
     private UUID id;
 
     private String code;
     private Integer discount;
     private Date valid;
+    private boolean singleUse;
+    private Integer maxRedemptions;
+    private int redemptions;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 }
@@ -0,0 +1,21 @@
+package com.eventostec.api.domain.coupon;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Generates {@code count} single-use coupons sharing the same discount and validity. Length and
+ * alphabet of the codes are optional and default to the {@code coupon.batch.*} properties.
+ */
+public record CouponBatchRequestDTO(
+        @NotNull(message = "A quantidade deve ser informada")
+        @Positive(message = "A quantidade deve ser positiva") Integer count,
+        @NotNull(message = "O desconto deve ser informado") Integer discount,
+        @NotNull(message = "A validade deve ser informada") Long valid,
+        @Min(value = 4, message = "O código deve ter no mínimo 4 caracteres")
+        @Max(value = 100, message = "O código deve ter no máximo 100 caracteres") Integer length,
+        @Size(min = 2, message = "O alfabeto deve ter no mínimo 2 caracteres") String alphabet) {
+}
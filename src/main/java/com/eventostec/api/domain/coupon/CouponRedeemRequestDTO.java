@@ -0,0 +1,11 @@
+package com.eventostec.api.domain.coupon;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record CouponRedeemRequestDTO(
+        @NotNull(message = "O evento deve ser informado") UUID eventId,
+        @NotEmpty(message = "O código deve ser informado") String code) {
+}
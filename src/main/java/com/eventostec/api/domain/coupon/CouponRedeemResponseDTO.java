@@ -0,0 +1,7 @@
+package com.eventostec.api.domain.coupon;
+
+/**
+ * {@code remainingRedemptions} is null for coupons without a usage limit.
+ */
+public record CouponRedeemResponseDTO(String code, Integer discount, Integer remainingRedemptions) {
+}
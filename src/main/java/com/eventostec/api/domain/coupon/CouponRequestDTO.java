@@ -1,4 +1,7 @@
 package com.eventostec.api.domain.coupon;
 
-public record CouponRequestDTO(String code, Integer discount, Long valid) {
+/**
+ * {@code maxRedemptions} is optional, coupons without it can be redeemed any number of times.
+ */
+public record CouponRequestDTO(String code, Integer discount, Long valid, Integer maxRedemptions) {
 }
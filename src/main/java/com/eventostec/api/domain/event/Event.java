@@ -1,7 +1,7 @@
 package com.eventostec.api.domain.event;
 
+import com.eventostec.api.domain.TimeOrderedId;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -20,12 +20,14 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Event {
     @Id
-    @GeneratedValue
+    @TimeOrderedId
     private UUID id;
 
     private String title;
     private String description;
     private String imgUrl;
+    private String imgListUrl;
+    private String imgDetailUrl;
     private String eventUrl;
     private Boolean remote;
     private Date date;
@@ -0,0 +1,44 @@
+package com.eventostec.api.domain.event;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Position of the last event returned in a listing, used to seek to the next page instead of
+ * skipping rows with OFFSET. Listings are ordered by (date, id), so the pair is unique.
+ * <p>
+ * Clients only ever see the opaque {@link #encode() encoded} form, sent back in the
+ * {@value #NEXT_CURSOR_HEADER} response header.
+ */
+public record EventCursor(Date date, UUID id) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = ":";
+
+    public static EventCursor of(EventResponseDTO event) {
+        return new EventCursor(event.date(), event.id());
+    }
+
+    /**
+     * Also used by Spring to bind the {@code cursor} request parameter, a malformed value ends
+     * up as a 400 through {@code ApiExceptionHandler}.
+     */
+    public static EventCursor from(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new EventCursor(
+                new Date(Long.parseLong(decoded.substring(0, separator))),
+                UUID.fromString(decoded.substring(separator + 1)));
+    }
+
+    public String encode() {
+        String raw = date.getTime() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
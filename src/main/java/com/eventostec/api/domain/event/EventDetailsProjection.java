@@ -0,0 +1,22 @@
+package com.eventostec.api.domain.event;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * One row per valid coupon of the event (or a single row with null coupon columns when it has
+ * none), so the whole details view comes back from a single query.
+ */
+public interface EventDetailsProjection {
+    UUID getId();
+    String getTitle();
+    String getDescription();
+    Date getDate();
+    String getImgUrl();
+    String getEventUrl();
+    String getCity();
+    String getUf();
+    String getCouponCode();
+    Integer getCouponDiscount();
+    Date getCouponValid();
+}
@@ -0,0 +1,8 @@
+package com.eventostec.api.domain.event;
+
+import java.util.List;
+
+public record EventImportResultDTO(long imported, long failed, long elapsedMs, double rowsPerSecond, List<RowError> errors) {
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.eventostec.api.domain.event;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.utils.TextUtil;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * One row per event with the columns of the listings already joined: the event, its address
+ * when it has one, the list image, and the normalized keys the filter and the search match on.
+ * Written in the same transaction as the event and its address, so the listings read a single
+ * table and never join.
+ */
+@Table(name = "event_listing")
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class EventListing {
+    @Id
+    private UUID id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id")
+    private Event event;
+
+    private String title;
+    private String description;
+    private Date date;
+    private String imgUrl;
+    private String eventUrl;
+    private Boolean remote;
+    private String city;
+    private String uf;
+
+    /**
+     * Null for events without an address, which the location filter leaves out.
+     */
+    private String cityNormalized;
+    private String ufNormalized;
+
+    private String titleNormalized;
+    private String descriptionNormalized;
+
+    /**
+     * @param address the address of the event, or null for a remote event
+     */
+    public static EventListing of(Event event, Address address) {
+        EventListing listing = new EventListing();
+        listing.setEvent(event);
+        listing.setTitle(event.getTitle());
+        listing.setDescription(event.getDescription());
+        listing.setDate(event.getDate());
+        listing.setImgUrl(event.getImgListUrl() != null ? event.getImgListUrl() : event.getImgUrl());
+        listing.setEventUrl(event.getEventUrl());
+        listing.setRemote(event.getRemote());
+        listing.setTitleNormalized(TextUtil.normalize(event.getTitle()));
+        listing.setDescriptionNormalized(TextUtil.normalize(event.getDescription()));
+        if (address != null) {
+            listing.setCity(address.getCity());
+            listing.setUf(address.getUf());
+            listing.setCityNormalized(address.getCityNormalized());
+            listing.setUfNormalized(address.getUfNormalized());
+        }
+        return listing;
+    }
+}
@@ -3,15 +3,21 @@ package com.eventostec.api.domain.event;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.web.multipart.MultipartFile;
 
 public record EventRequestDTO(
-        @NotNull(message = "O título deve ser informado") String title,
-        @NotNull(message = "A descrição deve ser informada") String description,
-        @NotNull(message = "A data deve ser informada") Long date, String city,
-        @NotNull(message = "O estado deve ser informado") String state,
+        @NotNull(message = "O título deve ser informado")
+        @Size(max = 100, message = "O título deve ter no máximo 100 caracteres") String title,
+        @NotNull(message = "A descrição deve ser informada")
+        @Size(max = 400, message = "A descrição deve ter no máximo 400 caracteres") String description,
+        @NotNull(message = "A data deve ser informada") Long date,
+        @Size(max = 100, message = "A cidade deve ter no máximo 100 caracteres") String city,
+        @NotNull(message = "O estado deve ser informado")
+        @Size(max = 100, message = "O estado deve ter no máximo 100 caracteres") String state,
         Boolean remote,
         @Pattern(regexp = "^(https?://)(www\\.)?[a-zA-Z0-9-]+(\\.[a-zA-Z]{2,63}){1,3}(/[a-zA-Z0-9._~:/?#\\[\\]@!$&'()*+,;=-]*)?$", message = "URL inválida")
+        @Size(max = 250, message = "O link para o evento deve ter no máximo 250 caracteres")
         @NotEmpty(message = "O link para o evento deve ser informado") String eventUrl,
         MultipartFile image) {
 }
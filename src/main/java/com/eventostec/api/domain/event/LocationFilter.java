@@ -0,0 +1,45 @@
+package com.eventostec.api.domain.event;
+
+import com.eventostec.api.utils.TextUtil;
+
+/**
+ * City and UF filter of the event listing, in the normalized form stored on the listing rows
+ * ({@link TextUtil#normalize}), so "sao paulo", "São Paulo" and "SÃO PAULO" all match.
+ * <p>
+ * By default city and UF match anywhere in the stored value, as the filter always did; that
+ * reads every row in the date range. {@link Match#EXACT} lets Postgres read the (uf, city, date)
+ * index in date order and stop after one page, and {@link Match#PREFIX} still seeks the index but
+ * has to sort the matches; both match the UF exactly. An empty value does not filter.
+ */
+public record LocationFilter(String city, String uf, Match match) {
+
+    public enum Match {
+        CONTAINS,
+        EXACT,
+        PREFIX
+    }
+
+    public static LocationFilter of(String city, String uf, Match match) {
+        return new LocationFilter(TextUtil.normalize(city), TextUtil.normalize(uf), match);
+    }
+
+    public boolean prefix() {
+        return match == Match.PREFIX;
+    }
+
+    public boolean contains() {
+        return match == Match.CONTAINS;
+    }
+
+    public boolean cityMatches(String normalizedCity) {
+        return switch (match) {
+            case CONTAINS -> normalizedCity.contains(city);
+            case PREFIX -> normalizedCity.startsWith(city);
+            case EXACT -> normalizedCity.equals(city);
+        };
+    }
+
+    public boolean ufMatches(String normalizedUf) {
+        return contains() ? normalizedUf.contains(uf) : normalizedUf.equals(uf);
+    }
+}
@@ -0,0 +1,25 @@
+package com.eventostec.api.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request turned away under load, by the admission control or when an upload finds no free
+ * buffer, with the status to answer and the seconds after which the client may retry.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(HttpStatus status, long retryAfterSeconds) {
+        this(status, retryAfterSeconds, "Request rejected by the admission control");
+    }
+
+    public AdmissionRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,37 @@
+package com.eventostec.api.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Why a coupon could not be redeemed, answered by {@link com.eventostec.api.exceptions.config.ApiExceptionHandler}
+ * with the status of the reason.
+ */
+@Getter
+public class CouponRedemptionException extends RuntimeException {
+
+    private final Reason reason;
+
+    public CouponRedemptionException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    @Getter
+    public enum Reason {
+        NOT_FOUND(HttpStatus.NOT_FOUND, "Cupom não encontrado", "Não há cupom ativo com este código para o evento."),
+        EXPIRED(HttpStatus.GONE, "Cupom expirado", "O cupom não é mais válido."),
+        EXHAUSTED(HttpStatus.CONFLICT, "Cupom esgotado", "O cupom já atingiu o limite de resgates."),
+        UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Resgate indisponível", "O resgate não pôde ser confirmado. Tente novamente.");
+
+        private final HttpStatus status;
+        private final String title;
+        private final String detail;
+
+        Reason(HttpStatus status, String title, String detail) {
+            this.status = status;
+            this.title = title;
+            this.detail = detail;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.eventostec.api.exceptions.config;
 
+import com.eventostec.api.exceptions.AdmissionRejectedException;
+import com.eventostec.api.exceptions.CouponRedemptionException;
 import com.eventostec.api.utils.ExceptionUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @ControllerAdvice
@@ -20,10 +24,25 @@ public class ApiExceptionHandler {
             MissingServletRequestParameterException.class,
             DataIntegrityViolationException.class,
             MethodArgumentNotValidException.class,
-            ConversionFailedException.class
+            ConversionFailedException.class,
+            HandlerMethodValidationException.class
     })
     public ResponseEntity<ProblemDetails> handleException(Exception ex, HttpServletRequest request) {
         ProblemDetails problemDetails = ExceptionUtil.getProblemDetails(request, ex);
         return new ResponseEntity<>(problemDetails, HttpStatus.BAD_REQUEST);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(CouponRedemptionException.class)
+    public ResponseEntity<ProblemDetails> handleCouponRedemption(CouponRedemptionException ex, HttpServletRequest request) {
+        ProblemDetails problemDetails = ExceptionUtil.getProblemDetails(request, ex);
+        return new ResponseEntity<>(problemDetails, ex.getReason().getStatus());
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ProblemDetails> handleAdmissionRejected(AdmissionRejectedException ex, HttpServletRequest request) {
+        ProblemDetails problemDetails = ExceptionUtil.getProblemDetails(request, ex);
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problemDetails);
+    }
+}
@@ -17,6 +17,8 @@ public interface EventMapper {
                 @Mapping(source = "dto.title", target = "title"),
                 @Mapping(source = "dto.description", target = "description"),
                 @Mapping(target = "imgUrl", source = "imgUrl"),
+                @Mapping(target = "imgListUrl", ignore = true),
+                @Mapping(target = "imgDetailUrl", ignore = true),
                 @Mapping(source = "dto.eventUrl", target = "eventUrl"),
                 @Mapping(source = "dto.date", target = "date", qualifiedByName = "epochToDate"),
                 @Mapping(source = "dto.remote", target = "remote"),
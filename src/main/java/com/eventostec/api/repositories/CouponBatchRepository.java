@@ -0,0 +1,65 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.utils.TimeOrderedUuid;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC access for coupons generated in bulk, which are written with batched inserts instead of
+ * one {@code save} per coupon. Callers are expected to run inside a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class CouponBatchRepository {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String INSERT_COUPON =
+            "INSERT INTO coupon (id, code, discount, valid, single_use, max_redemptions, redemptions, event_id) VALUES (?, ?, ?, ?, TRUE, 1, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks the event row until the end of the transaction, serializing code generation per event.
+     *
+     * @return false if the event does not exist
+     */
+    public boolean lockEvent(UUID eventId) {
+        return !jdbcTemplate.queryForList("SELECT id FROM event WHERE id = ? FOR UPDATE", UUID.class, eventId).isEmpty();
+    }
+
+    public Set<String> findCodesByEventId(UUID eventId) {
+        Set<String> codes = new HashSet<>();
+        jdbcTemplate.query("SELECT code FROM coupon WHERE event_id = ?",
+                resultSet -> {
+                    codes.add(resultSet.getString(1));
+                },
+                eventId);
+        return codes;
+    }
+
+    public boolean isSingleUseCode(UUID eventId, String code) {
+        return !jdbcTemplate.queryForList("SELECT id FROM coupon WHERE event_id = ? AND code = ? AND single_use",
+                UUID.class, eventId, code).isEmpty();
+    }
+
+    public void insertSingleUseCoupons(UUID eventId, Collection<String> codes, int discount, Date valid) {
+        Timestamp validTimestamp = new Timestamp(valid.getTime());
+        jdbcTemplate.batchUpdate(INSERT_COUPON, codes, BATCH_SIZE, (statement, code) -> {
+            statement.setObject(1, TimeOrderedUuid.next());
+            statement.setString(2, code);
+            statement.setInt(3, discount);
+            statement.setTimestamp(4, validTimestamp);
+            statement.setObject(5, eventId);
+        });
+    }
+}
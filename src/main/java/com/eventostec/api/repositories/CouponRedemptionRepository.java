@@ -0,0 +1,84 @@
+package com.eventostec.api.repositories;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class CouponRedemptionRepository {
+
+    private static final String APPLY_REDEMPTIONS = "UPDATE coupon SET redemptions = redemptions + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Several coupons of an event can share a code: a single-use code, generated for one buyer,
+     * always wins over a regular coupon added with the same code, and otherwise the coupon valid
+     * for the longest is used.
+     */
+    public Optional<CouponUsage> findActiveCoupon(UUID eventId, String code, Date currentDate) {
+        return jdbcTemplate.query(
+                        "SELECT id, discount, valid, max_redemptions, redemptions FROM coupon " +
+                        "WHERE event_id = ? AND code = ? AND valid > ? ORDER BY single_use DESC, valid DESC, id LIMIT 1",
+                        (resultSet, rowNum) -> new CouponUsage(
+                                resultSet.getObject("id", UUID.class),
+                                resultSet.getInt("discount"),
+                                new Date(resultSet.getTimestamp("valid").getTime()),
+                                resultSet.getObject("max_redemptions", Integer.class),
+                                resultSet.getInt("redemptions")),
+                        eventId, code, new Timestamp(currentDate.getTime()))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Adds the redemptions of each coupon, clamped to what is left of its limit, so a coupon is
+     * never taken past it even when several instances redeem it. The coupon rows are locked in id
+     * order first, which avoids deadlocks between concurrent batches, and then updated in one batch.
+     *
+     * @return the redemptions granted to each coupon, fewer than requested when the limit was
+     * reached and none for a coupon that no longer exists
+     */
+    @Transactional
+    public Map<UUID, Integer> applyRedemptions(Map<UUID, Integer> redemptionsByCoupon) {
+        List<UUID> ids = new ArrayList<>(redemptionsByCoupon.keySet());
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Map<UUID, Integer> granted = new HashMap<>();
+        jdbcTemplate.query("SELECT id, max_redemptions, redemptions FROM coupon WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                (RowCallbackHandler) row -> {
+                    UUID id = row.getObject("id", UUID.class);
+                    int requested = redemptionsByCoupon.get(id);
+                    Integer maxRedemptions = row.getObject("max_redemptions", Integer.class);
+                    int available = (maxRedemptions != null) ? Math.max(0, maxRedemptions - row.getInt("redemptions")) : requested;
+                    granted.put(id, Math.min(requested, available));
+                },
+                ids.toArray());
+
+        List<Map.Entry<UUID, Integer>> updates = granted.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        jdbcTemplate.batchUpdate(APPLY_REDEMPTIONS, updates, updates.size(), (statement, entry) -> {
+            statement.setInt(1, entry.getValue());
+            statement.setObject(2, entry.getKey());
+        });
+        return granted;
+    }
+
+    public record CouponUsage(UUID id, int discount, Date valid, Integer maxRedemptions, int redemptions) {
+    }
+}
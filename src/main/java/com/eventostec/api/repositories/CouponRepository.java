@@ -2,11 +2,13 @@ package com.eventostec.api.repositories;
 
 import com.eventostec.api.domain.coupon.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
+@Transactional(readOnly = true)
 public interface CouponRepository extends JpaRepository <Coupon, UUID> {
     List<Coupon> findByEventIdAndValidAfter(UUID eventId, Date currentDate);
 }
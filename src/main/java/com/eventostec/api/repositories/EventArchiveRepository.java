@@ -0,0 +1,119 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Moves past events and expired coupons from the live tables to their archive tables, one batch
+ * per statement, and reads archived events back.
+ * <p>
+ * Each batch is a single statement whose CTEs copy the rows and delete the originals, so a batch
+ * is archived entirely or not at all. The copies read the snapshot taken before the delete, so the
+ * addresses and coupons removed by {@code ON DELETE CASCADE} are copied too. Rows locked by other
+ * transactions are skipped and left for the next run.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class EventArchiveRepository {
+
+    private static final String ARCHIVE_EVENTS =
+            "WITH batch AS (" +
+            "    SELECT id FROM event WHERE date < ? ORDER BY date, id LIMIT ? FOR UPDATE SKIP LOCKED" +
+            "), archived_addresses AS (" +
+            "    INSERT INTO address_archive (id, city, uf, city_normalized, uf_normalized, event_date, event_id, archived_at)" +
+            "    SELECT a.id, a.city, a.uf, a.city_normalized, a.uf_normalized, a.event_date, a.event_id, ? FROM address a JOIN batch b ON a.event_id = b.id" +
+            "), archived_coupons AS (" +
+            "    INSERT INTO coupon_archive (id, code, discount, valid, single_use, max_redemptions, redemptions, event_id, archived_at)" +
+            "    SELECT c.id, c.code, c.discount, c.valid, c.single_use, c.max_redemptions, c.redemptions, c.event_id, ? FROM coupon c JOIN batch b ON c.event_id = b.id" +
+            "), archived_events AS (" +
+            "    INSERT INTO event_archive (id, title, description, img_url, img_list_url, img_detail_url, event_url, date, remote, archived_at)" +
+            "    SELECT e.id, e.title, e.description, e.img_url, e.img_list_url, e.img_detail_url, e.event_url, e.date, e.remote, ? FROM event e JOIN batch b ON e.id = b.id" +
+            ") " +
+            "DELETE FROM event e USING batch b WHERE e.id = b.id RETURNING e.id, e.date";
+
+    private static final String ARCHIVE_COUPONS =
+            "WITH batch AS (" +
+            "    SELECT id FROM coupon WHERE valid < ? ORDER BY valid LIMIT ? FOR UPDATE SKIP LOCKED" +
+            "), moved AS (" +
+            "    DELETE FROM coupon c USING batch b WHERE c.id = b.id" +
+            "    RETURNING c.id, c.code, c.discount, c.valid, c.single_use, c.max_redemptions, c.redemptions, c.event_id" +
+            ") " +
+            "INSERT INTO coupon_archive (id, code, discount, valid, single_use, max_redemptions, redemptions, event_id, archived_at) " +
+            "SELECT id, code, discount, valid, single_use, max_redemptions, redemptions, event_id, ? FROM moved";
+
+    private static final String SELECT_ARCHIVED_EVENT =
+            "SELECT e.id, e.title, e.description, e.date, COALESCE(e.img_detail_url, e.img_url) AS img_url, e.event_url, a.city, a.uf, " +
+            "c.code AS coupon_code, c.discount AS coupon_discount, c.valid AS coupon_valid " +
+            "FROM event_archive e LEFT JOIN address_archive a ON a.event_id = e.id " +
+            "LEFT JOIN coupon_archive c ON c.event_id = e.id AND NOT c.single_use " +
+            "WHERE e.id = ? " +
+            "ORDER BY c.valid";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Archives up to {@code limit} events dated before {@code before}, oldest first, with their
+     * addresses and coupons.
+     *
+     * @return the archived events
+     */
+    public List<ArchivedEvent> archiveEventsBefore(Date before, int limit, Date archivedAt) {
+        Timestamp archivedAtTimestamp = new Timestamp(archivedAt.getTime());
+        return jdbcTemplate.query(ARCHIVE_EVENTS,
+                (resultSet, rowNum) -> new ArchivedEvent(
+                        resultSet.getObject("id", UUID.class),
+                        new Date(resultSet.getTimestamp("date").getTime())),
+                new Timestamp(before.getTime()), limit, archivedAtTimestamp, archivedAtTimestamp, archivedAtTimestamp);
+    }
+
+    /**
+     * Archives up to {@code limit} coupons that expired before {@code before}.
+     *
+     * @return the number of archived coupons
+     */
+    public int archiveCouponsBefore(Date before, int limit, Date archivedAt) {
+        return jdbcTemplate.update(ARCHIVE_COUPONS, new Timestamp(before.getTime()), limit, new Timestamp(archivedAt.getTime()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<EventDetailsDTO> findArchivedEventDetails(UUID eventId) {
+        List<EventDetailsDTO.CouponDTO> coupons = new ArrayList<>();
+        EventDetailsDTO[] event = {null};
+        jdbcTemplate.query(SELECT_ARCHIVED_EVENT, resultSet -> {
+            if (event[0] == null) {
+                event[0] = new EventDetailsDTO(
+                        resultSet.getObject("id", UUID.class),
+                        resultSet.getString("title"),
+                        resultSet.getString("description"),
+                        new Date(resultSet.getTimestamp("date").getTime()),
+                        Optional.ofNullable(resultSet.getString("city")).orElse(""),
+                        Optional.ofNullable(resultSet.getString("uf")).orElse(""),
+                        resultSet.getString("img_url"),
+                        resultSet.getString("event_url"),
+                        coupons);
+            }
+            if (resultSet.getString("coupon_code") != null) {
+                coupons.add(new EventDetailsDTO.CouponDTO(
+                        resultSet.getString("coupon_code"),
+                        resultSet.getInt("coupon_discount"),
+                        new Date(resultSet.getTimestamp("coupon_valid").getTime())));
+            }
+        }, eventId);
+        return Optional.ofNullable(event[0]);
+    }
+
+    public record ArchivedEvent(UUID id, Date date) {
+    }
+}
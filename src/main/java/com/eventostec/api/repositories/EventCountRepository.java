@@ -0,0 +1,74 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.domain.event.LocationFilter;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Row estimates for the listing totals, taken from the Postgres planner: the listing query is
+ * EXPLAINed, never run, and the estimated row count of its plan is returned. Planning only reads
+ * the table statistics kept by ANALYZE, so the cost does not grow with the catalogue, and the
+ * estimate is as fresh as those statistics.
+ * <p>
+ * Other databases, such as the H2 of the tests, get an exact COUNT.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class EventCountRepository {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    @Transactional(readOnly = true)
+    public long estimateUpcomingEvents(Date currentDate) {
+        return estimate("date >= ?", List.of(new Timestamp(currentDate.getTime())));
+    }
+
+    /**
+     * Estimates the predicate {@link EventFilterRepository} runs for the filter, so the planner
+     * sees the same conditions rather than a generic one.
+     */
+    @Transactional(readOnly = true)
+    public long estimateFilteredEvents(LocationFilter location, Date startDate, Date endDate) {
+        List<Object> parameters = new ArrayList<>();
+        String where = EventFilterRepository.filterPredicate(location, startDate, endDate, parameters);
+        return estimate(where, parameters);
+    }
+
+    private long estimate(String where, List<Object> parameters) {
+        Object[] arguments = parameters.toArray();
+        if (!isPostgres()) {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_listing WHERE " + where, Long.class, arguments);
+            return (count != null) ? count : 0L;
+        }
+        // The first line of the plan is its root node, whose row estimate is the total.
+        String plan = jdbcTemplate.query("EXPLAIN SELECT 1 FROM event_listing WHERE " + where,
+                resultSet -> resultSet.next() ? resultSet.getString(1) : "", arguments);
+        Matcher rows = PLAN_ROWS.matcher(plan);
+        return rows.find() ? Long.parseLong(rows.group(1)) : 0L;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return Boolean.TRUE.equals(result);
+    }
+}
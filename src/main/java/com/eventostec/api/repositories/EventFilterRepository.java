@@ -0,0 +1,159 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.domain.event.EventAddressProjection;
+import com.eventostec.api.domain.event.EventCursor;
+import com.eventostec.api.domain.event.LocationFilter;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Location filter pages, read from the listing rows by date and id.
+ * <p>
+ * The WHERE clause holds only the conditions the filter uses, written for its {@link LocationFilter.Match},
+ * so each mode gets its own plan. EXACT compares with {@code =} and reads the (uf, city, date) or
+ * (city, date) index in order, stopping after one page. PREFIX uses {@code LIKE 'x%'}, which that
+ * index cannot seek under the database collation, so it seeks the UF and date and sorts the
+ * matching rows. CONTAINS uses {@code LIKE '%x%'} for city and UF and reads the whole date range.
+ * An empty city or UF adds no condition.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class EventFilterRepository {
+
+    private static final String SELECT_LISTING =
+            "SELECT id, title, description, date, img_url, event_url, remote, city, uf FROM event_listing WHERE ";
+
+    private static final RowMapper<EventAddressProjection> LISTING_ROW = (row, rowNum) -> new ListingRow(
+            row.getObject("id", UUID.class),
+            row.getString("title"),
+            row.getString("description"),
+            row.getTimestamp("date"),
+            row.getString("img_url"),
+            row.getString("event_url"),
+            row.getObject("remote", Boolean.class),
+            row.getString("city"),
+            row.getString("uf"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public List<EventAddressProjection> findFilteredEvents(LocationFilter location, Date startDate, Date endDate, int page, int size) {
+        List<Object> parameters = new ArrayList<>();
+        String where = filterPredicate(location, startDate, endDate, parameters);
+        parameters.add(size);
+        parameters.add((long) page * size);
+        return jdbcTemplate.query(SELECT_LISTING + where + " ORDER BY date, id LIMIT ? OFFSET ?",
+                LISTING_ROW, parameters.toArray());
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventAddressProjection> findFilteredEventsAfter(LocationFilter location, Date startDate, Date endDate,
+                                                                EventCursor cursor, int limit) {
+        List<Object> parameters = new ArrayList<>();
+        String where = filterPredicate(location, startDate, endDate, parameters);
+        Timestamp cursorDate = new Timestamp(cursor.date().getTime());
+        parameters.add(cursorDate);
+        parameters.add(cursorDate);
+        parameters.add(cursor.id());
+        parameters.add(limit);
+        return jdbcTemplate.query(SELECT_LISTING + where + " AND date >= ? AND (date > ? OR id > ?) ORDER BY date, id LIMIT ?",
+                LISTING_ROW, parameters.toArray());
+    }
+
+    /**
+     * The conditions of a location filter and a date range on the listing rows, also estimated by
+     * {@link EventCountRepository}. Adds their values to {@code parameters}.
+     */
+    static String filterPredicate(LocationFilter location, Date startDate, Date endDate, List<Object> parameters) {
+        StringBuilder where = new StringBuilder("city_normalized IS NOT NULL");
+        if (!location.city().isEmpty()) {
+            switch (location.match()) {
+                case CONTAINS -> {
+                    where.append(" AND city_normalized LIKE ?");
+                    parameters.add("%" + location.city() + "%");
+                }
+                case PREFIX -> {
+                    where.append(" AND city_normalized LIKE ?");
+                    parameters.add(location.city() + "%");
+                }
+                case EXACT -> {
+                    where.append(" AND city_normalized = ?");
+                    parameters.add(location.city());
+                }
+            }
+        }
+        if (!location.uf().isEmpty()) {
+            if (location.contains()) {
+                where.append(" AND uf_normalized LIKE ?");
+                parameters.add("%" + location.uf() + "%");
+            } else {
+                where.append(" AND uf_normalized = ?");
+                parameters.add(location.uf());
+            }
+        }
+        where.append(" AND date >= ? AND date <= ?");
+        parameters.add(new Timestamp(startDate.getTime()));
+        parameters.add(new Timestamp(endDate.getTime()));
+        return where.toString();
+    }
+
+    private record ListingRow(UUID id, String title, String description, Date date, String imgUrl, String eventUrl,
+                              Boolean remote, String city, String uf) implements EventAddressProjection {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public Date getDate() {
+            return date;
+        }
+
+        @Override
+        public String getImgUrl() {
+            return imgUrl;
+        }
+
+        @Override
+        public String getEventUrl() {
+            return eventUrl;
+        }
+
+        @Override
+        public Boolean getRemote() {
+            return remote;
+        }
+
+        @Override
+        public String getCity() {
+            return city;
+        }
+
+        @Override
+        public String getUf() {
+            return uf;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventListing;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts imported events with JDBC batches instead of one {@code save} per entity. The ids must
+ * already be set, so events, their addresses and their listing rows can be written in three
+ * statements per chunk.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class EventImportRepository {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO event (id, title, description, img_url, event_url, date, remote) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ADDRESS =
+            "INSERT INTO address (id, city, uf, city_normalized, uf_normalized, event_date, event_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insertAll(List<Event> events, List<Address> addresses) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setObject(1, event.getId());
+            statement.setString(2, event.getTitle());
+            statement.setString(3, event.getDescription());
+            statement.setString(4, event.getImgUrl());
+            statement.setString(5, event.getEventUrl());
+            statement.setTimestamp(6, new Timestamp(event.getDate().getTime()));
+            statement.setBoolean(7, event.getRemote());
+        });
+        if (!addresses.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ADDRESS, addresses, addresses.size(), (statement, address) -> {
+                statement.setObject(1, address.getId());
+                statement.setString(2, address.getCity());
+                statement.setString(3, address.getUf());
+                statement.setString(4, address.getCityNormalized());
+                statement.setString(5, address.getUfNormalized());
+                statement.setTimestamp(6, new Timestamp(address.getEventDate().getTime()));
+                statement.setObject(7, address.getEvent().getId());
+            });
+        }
+
+        Map<UUID, Address> addressesByEvent = addresses.stream()
+                .collect(Collectors.toMap(address -> address.getEvent().getId(), Function.identity()));
+        List<EventListing> listings = events.stream()
+                .map(event -> EventListing.of(event, addressesByEvent.get(event.getId())))
+                .toList();
+        jdbcTemplate.batchUpdate(EventListingRebuildRepository.INSERT_LISTING, listings, listings.size(),
+                EventListingRebuildRepository::setListing);
+    }
+}
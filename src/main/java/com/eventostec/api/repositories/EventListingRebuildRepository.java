@@ -0,0 +1,103 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventListing;
+import com.eventostec.api.utils.TextUtil;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rewrites the listing rows from the event and address tables, for the backfill and to repair
+ * rows written outside the application. Events are read in id order, one batch per transaction;
+ * each row is derived with {@link EventListing#of} like the rows written on create.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class EventListingRebuildRepository {
+
+    private static final String SELECT_EVENTS =
+            "SELECT e.id, e.title, e.description, e.img_url, e.img_list_url, e.img_detail_url, e.event_url, e.remote, e.date, a.city, a.uf " +
+            "FROM event e LEFT JOIN address a ON a.event_id = e.id " +
+            "WHERE e.id > ? ORDER BY e.id LIMIT ?";
+
+    static final String INSERT_LISTING =
+            "INSERT INTO event_listing (id, title, description, date, img_url, event_url, remote, city, uf, " +
+            "city_normalized, uf_normalized, title_normalized, description_normalized) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_LISTING = INSERT_LISTING + " " +
+            "ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, description = EXCLUDED.description, date = EXCLUDED.date, " +
+            "img_url = EXCLUDED.img_url, event_url = EXCLUDED.event_url, remote = EXCLUDED.remote, city = EXCLUDED.city, uf = EXCLUDED.uf, " +
+            "city_normalized = EXCLUDED.city_normalized, uf_normalized = EXCLUDED.uf_normalized, " +
+            "title_normalized = EXCLUDED.title_normalized, description_normalized = EXCLUDED.description_normalized";
+
+    /**
+     * Every id is greater than this one, so the first batch starts after it.
+     */
+    public static final UUID FIRST = new UUID(0L, 0L);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Rewrites the listing rows of up to {@code limit} events whose id comes after {@code after}.
+     *
+     * @return the ids of the events rewritten, in order; the last one is where the next batch starts
+     */
+    @Transactional
+    public List<UUID> rebuildAfter(UUID after, int limit) {
+        List<EventListing> listings = new ArrayList<>(limit);
+        jdbcTemplate.query(SELECT_EVENTS, resultSet -> {
+            Event event = new Event(
+                    resultSet.getObject("id", UUID.class),
+                    resultSet.getString("title"),
+                    resultSet.getString("description"),
+                    resultSet.getString("img_url"),
+                    resultSet.getString("img_list_url"),
+                    resultSet.getString("img_detail_url"),
+                    resultSet.getString("event_url"),
+                    resultSet.getBoolean("remote"),
+                    new Date(resultSet.getTimestamp("date").getTime()));
+            String city = resultSet.getString("city");
+            String uf = resultSet.getString("uf");
+            Address address = (city != null)
+                    ? new Address(null, city, uf, TextUtil.normalize(city), TextUtil.normalize(uf), event.getDate(), event)
+                    : null;
+            listings.add(EventListing.of(event, address));
+        }, after, limit);
+
+        jdbcTemplate.batchUpdate(UPSERT_LISTING, listings, listings.size(), EventListingRebuildRepository::setListing);
+        return listings.stream().map(listing -> listing.getEvent().getId()).toList();
+    }
+
+    /**
+     * Sets the parameters of {@link #INSERT_LISTING}.
+     */
+    static void setListing(PreparedStatement statement, EventListing listing) throws SQLException {
+        statement.setObject(1, listing.getEvent().getId());
+        statement.setString(2, listing.getTitle());
+        statement.setString(3, listing.getDescription());
+        statement.setTimestamp(4, new Timestamp(listing.getDate().getTime()));
+        statement.setString(5, listing.getImgUrl());
+        statement.setString(6, listing.getEventUrl());
+        statement.setBoolean(7, listing.getRemote());
+        statement.setString(8, listing.getCity());
+        statement.setString(9, listing.getUf());
+        statement.setString(10, listing.getCityNormalized());
+        statement.setString(11, listing.getUfNormalized());
+        statement.setString(12, listing.getTitleNormalized());
+        statement.setString(13, listing.getDescriptionNormalized());
+    }
+}
@@ -0,0 +1,28 @@
+package com.eventostec.api.repositories;
+
+import com.eventostec.api.domain.event.EventListing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Writes of the listing rows. The listings themselves are read through {@link EventRepository},
+ * which keeps the queries of the event pages in one place.
+ */
+@Transactional(readOnly = true)
+public interface EventListingRepository extends JpaRepository<EventListing, UUID> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventListing l WHERE l.id = :eventId")
+    int deleteListing(@Param("eventId") UUID eventId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventListing l SET l.imgUrl = :imgUrl WHERE l.id = :eventId")
+    int updateImgUrl(@Param("eventId") UUID eventId, @Param("imgUrl") String imgUrl);
+}
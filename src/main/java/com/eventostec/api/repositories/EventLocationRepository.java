@@ -0,0 +1,55 @@
+package com.eventostec.api.repositories;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Reads the normalized location and date of every in-person event from the listing rows, for the
+ * in-memory filter index.
+ * Rows are streamed instead of mapped to entities, so millions of them never sit in memory at once.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class EventLocationRepository {
+
+    private static final String SELECT_LOCATIONS =
+            "SELECT id, city_normalized, uf_normalized, date FROM event_listing " +
+            "WHERE city_normalized IS NOT NULL AND date >= ? ORDER BY date, id";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Calls the handler for each event dated from {@code from} on, in the (date, id) order of the
+     * listings. Runs in a read-only transaction so that Postgres honours the fetch size and
+     * streams through a cursor.
+     */
+    @Transactional(readOnly = true)
+    public void forEachLocationFrom(Date from, LocationHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_LOCATIONS);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, new Timestamp(from.getTime()));
+            return statement;
+        }, (RowCallbackHandler) row -> handler.accept(
+                row.getObject(1, UUID.class),
+                row.getString(2),
+                row.getString(3),
+                row.getTimestamp(4).getTime()));
+    }
+
+    @FunctionalInterface
+    public interface LocationHandler {
+        void accept(UUID eventId, String city, String uf, long date);
+    }
+}
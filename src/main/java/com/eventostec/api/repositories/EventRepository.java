@@ -2,36 +2,82 @@ package com.eventostec.api.repositories;
 
 import com.eventostec.api.domain.event.Event;
 import com.eventostec.api.domain.event.EventAddressProjection;
-import org.springframework.data.domain.Page;
+import com.eventostec.api.domain.event.EventDetailsProjection;
+import com.eventostec.api.domain.event.EventListing;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Query methods run in read-only transactions, which go to a read replica when there is one.
+ * <p>
+ * The listings, search pages and the export read {@link EventListing} rows, which already hold
+ * the address and the list image of each event; only the details join the tables. The filter
+ * pages read them through {@link EventFilterRepository}.
+ */
+@Transactional(readOnly = true)
 public interface EventRepository extends JpaRepository<Event, UUID> {
 
-    @Query("SELECT e.id AS id, e.title AS title, e.description AS description, e.date AS date, e.imgUrl AS imgUrl, e.eventUrl AS eventUrl, e.remote AS remote, a.city AS city, a.uf AS uf " +
+    @Query("SELECT l.id AS id, l.title AS title, l.description AS description, l.date AS date, l.imgUrl AS imgUrl, l.eventUrl AS eventUrl, l.remote AS remote, l.city AS city, l.uf AS uf " +
+            "FROM EventListing l " +
+            "WHERE l.date >= :currentDate " +
+            "ORDER BY l.date, l.id")
+    public Slice<EventAddressProjection> findUpcomingEvents(@Param("currentDate") Date currentDate, Pageable pageable);
+
+    @Query("SELECT l.id AS id, l.title AS title, l.description AS description, l.date AS date, l.imgUrl AS imgUrl, l.eventUrl AS eventUrl, l.remote AS remote, l.city AS city, l.uf AS uf " +
+            "FROM EventListing l " +
+            "WHERE l.date >= :currentDate " +
+            "AND l.date >= :cursorDate AND (l.date > :cursorDate OR l.id > :cursorId) " +
+            "ORDER BY l.date, l.id")
+    List<EventAddressProjection> findUpcomingEventsAfter(@Param("currentDate") Date currentDate,
+                                                         @Param("cursorDate") Date cursorDate,
+                                                         @Param("cursorId") UUID cursorId,
+                                                         Limit limit);
+
+    @Query("SELECT l.id AS id, l.title AS title, l.description AS description, l.date AS date, l.imgUrl AS imgUrl, l.eventUrl AS eventUrl, l.remote AS remote, l.city AS city, l.uf AS uf " +
+            "FROM EventListing l " +
+            "WHERE l.id IN :ids")
+    List<EventAddressProjection> findEventsByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Every event, oldest first, read through a database cursor 500 rows at a time
+     * instead of all at once. The stream must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l.id AS id, l.title AS title, l.description AS description, l.date AS date, l.imgUrl AS imgUrl, l.eventUrl AS eventUrl, l.remote AS remote, l.city AS city, l.uf AS uf " +
+            "FROM EventListing l " +
+            "ORDER BY l.date, l.id")
+    Stream<EventAddressProjection> streamAllEvents();
+
+    @Query("SELECT e.id AS id, e.title AS title, e.description AS description, e.date AS date, COALESCE(e.imgDetailUrl, e.imgUrl) AS imgUrl, e.eventUrl AS eventUrl, a.city AS city, a.uf AS uf, " +
+            "c.code AS couponCode, c.discount AS couponDiscount, c.valid AS couponValid " +
             "FROM Event e LEFT JOIN Address a ON e.id = a.event.id " +
-            "WHERE e.date >= :currentDate")
-    public Page<EventAddressProjection> findUpcomingEvents(@Param("currentDate") Date currentDate, Pageable pageable);
-
-    @Query("SELECT e.id AS id, e.title AS title, e.description AS description, e.date AS date, e.imgUrl AS imgUrl, e.eventUrl AS eventUrl, e.remote AS remote, a.city AS city, a.uf AS uf " +
-            "FROM Event e JOIN Address a ON e.id = a.event.id " +
-            "WHERE (:city = '' OR a.city LIKE %:city%) " +
-            "AND (:uf = '' OR a.uf LIKE %:uf%) " +
-            "AND (e.date >= :startDate AND e.date <= :endDate)")
-    Page<EventAddressProjection> findFilteredEvents(@Param("city") String city,
-                                                    @Param("uf") String uf,
-                                                    @Param("startDate") Date startDate,
-                                                    @Param("endDate") Date endDate,
-                                                    Pageable pageable);
-
-    @Query("SELECT e.id AS id, e.title AS title, e.description AS description, e.date AS date, e.imgUrl AS imgUrl, e.eventUrl AS eventUrl, e.remote AS remote, a.city AS city, a.uf AS uf " +
-            "FROM Event e JOIN Address a ON e.id = a.event.id " +
-            "WHERE (:title = '' OR e.title LIKE %:title%)")
-    List<EventAddressProjection> findEventsByTitle(@Param("title") String title);
+            "LEFT JOIN Coupon c ON e.id = c.event.id AND c.valid > :currentDate AND c.singleUse = false " +
+            "WHERE e.id = :eventId " +
+            "ORDER BY c.valid")
+    List<EventDetailsProjection> findEventDetails(@Param("eventId") UUID eventId, @Param("currentDate") Date currentDate);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.imgListUrl = :imgListUrl, e.imgDetailUrl = :imgDetailUrl WHERE e.id = :eventId")
+    int updateImageVariants(@Param("eventId") UUID eventId,
+                            @Param("imgListUrl") String imgListUrl,
+                            @Param("imgDetailUrl") String imgDetailUrl);
+
+    @Query("SELECT COUNT(e) FROM Event e WHERE e.date >= :currentDate")
+    long countUpcomingEvents(@Param("currentDate") Date currentDate);
 }
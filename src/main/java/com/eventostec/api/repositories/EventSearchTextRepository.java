@@ -0,0 +1,50 @@
+package com.eventostec.api.repositories;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+
+/**
+ * Reads the date and the normalized title and description of every event from the listing rows,
+ * for the in-memory search index.
+ * Rows are streamed instead of mapped to entities, so millions of them never sit in memory at once.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed("jdbc.repository.invocations")
+public class EventSearchTextRepository {
+
+    private static final String SELECT_SEARCH_TEXT =
+            "SELECT id, date, title_normalized, description_normalized FROM event_listing";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Calls the handler for each event, in no particular order. Runs in a read-only transaction so
+     * that Postgres honours the fetch size and streams through a cursor.
+     */
+    @Transactional(readOnly = true)
+    public void forEachSearchText(SearchTextHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_SEARCH_TEXT);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) row -> handler.accept(
+                row.getObject(1, UUID.class),
+                row.getTimestamp(2).getTime(),
+                row.getString(3),
+                row.getString(4)));
+    }
+
+    @FunctionalInterface
+    public interface SearchTextHandler {
+        void accept(UUID eventId, long date, String title, String description);
+    }
+}
@@ -4,6 +4,7 @@ import com.eventostec.api.domain.address.Address;
 import com.eventostec.api.domain.event.Event;
 import com.eventostec.api.domain.event.EventRequestDTO;
 import com.eventostec.api.repositories.AddressRepository;
+import com.eventostec.api.utils.TextUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,12 +17,16 @@ public class AddressService {
 
     private final AddressRepository addressRepository;
 
-    public void createAddress(EventRequestDTO data, Event event) {
-        Address address = new Address();
-        address.setCity(data.city());
-        address.setUf(data.state());
-        address.setEvent(event);
-        addressRepository.save(address);
+    public Address createAddress(EventRequestDTO data, Event event) {
+        return addressRepository.save(newAddress(null, data.city(), data.state(), event));
+    }
+
+    /**
+     * Builds an address with its normalized location columns filled in, for writers that do not
+     * go through {@link #createAddress}.
+     */
+    public static Address newAddress(UUID id, String city, String uf, Event event) {
+        return new Address(id, city, uf, TextUtil.normalize(city), TextUtil.normalize(uf), event.getDate(), event);
     }
 
     public Optional<Address> findByEventId(UUID eventId) {
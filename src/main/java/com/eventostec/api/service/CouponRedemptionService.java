@@ -0,0 +1,238 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.coupon.CouponRedeemResponseDTO;
+import com.eventostec.api.exceptions.CouponRedemptionException;
+import com.eventostec.api.exceptions.CouponRedemptionException.Reason;
+import com.eventostec.api.repositories.CouponRedemptionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates and redeems coupons at checkout without making the coupon row a point of contention.
+ * <p>
+ * Active coupons are kept in an in-memory index keyed by event and code, each with an atomic
+ * redemption counter that is checked and incremented lock-free. Accepted redemptions are queued
+ * and a single writer thread applies them in batches, one conditional update per coupon per
+ * batch, so the row lock is taken once for many buyers instead of once per buyer.
+ * <p>
+ * A redemption is only confirmed after its batch has been committed, and the update only grants
+ * what is left of the limit, so a coupon is never over-redeemed, neither after a restart nor with
+ * several instances. When the database grants fewer redemptions than a batch holds, the first ones
+ * queued are confirmed, the counters of the others are rolled back and the coupon is reloaded on
+ * its next use. A batch that fails to be written is reported as unavailable,
+ * not as exhausted, so the buyer can retry.
+ */
+@Service
+@Slf4j
+public class CouponRedemptionService {
+
+    private final CouponRedemptionRepository repository;
+    private final int maxBatchSize;
+    private final long commitTimeoutMs;
+
+    private final Cache<CouponKey, ActiveCoupon> index;
+    private final BlockingQueue<PendingRedemption> pending;
+    private final Thread writer;
+    private volatile boolean running;
+
+    public CouponRedemptionService(CouponRedemptionRepository repository,
+                                   @Value("${coupon.redeem.index-max-size:100000}") long indexMaxSize,
+                                   @Value("${coupon.redeem.index-ttl-ms:600000}") long indexTtlMs,
+                                   @Value("${coupon.redeem.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${coupon.redeem.max-batch-size:500}") int maxBatchSize,
+                                   @Value("${coupon.redeem.commit-timeout-ms:5000}") long commitTimeoutMs) {
+        this.repository = repository;
+        this.maxBatchSize = maxBatchSize;
+        this.commitTimeoutMs = commitTimeoutMs;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(indexMaxSize)
+                .expireAfterWrite(indexTtlMs, TimeUnit.MILLISECONDS)
+                .build();
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeRedemptions, "coupon-redemptions");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    public CouponRedeemResponseDTO redeem(UUID eventId, String code) {
+        CouponKey key = new CouponKey(eventId, code);
+        ActiveCoupon coupon = findActiveCoupon(key);
+        if (!coupon.valid().after(new Date())) {
+            index.invalidate(key);
+            throw new CouponRedemptionException(Reason.EXPIRED, "Coupon expired");
+        }
+
+        int redemptions = coupon.tryRedeem();
+        if (redemptions == -1) {
+            throw new CouponRedemptionException(Reason.EXHAUSTED, "Coupon exhausted");
+        }
+
+        PendingRedemption redemption = new PendingRedemption(key, coupon, new CompletableFuture<>());
+        if (!running || !pending.offer(redemption)) {
+            coupon.release(1);
+            throw new CouponRedemptionException(Reason.UNAVAILABLE, "Too many pending redemptions");
+        }
+        Outcome outcome = awaitCommit(redemption);
+        if (outcome == Outcome.REJECTED) {
+            throw new CouponRedemptionException(Reason.EXHAUSTED, "Coupon exhausted");
+        }
+        if (outcome == Outcome.FAILED) {
+            throw new CouponRedemptionException(Reason.UNAVAILABLE, "Redemption could not be saved");
+        }
+        Integer remaining = (coupon.maxRedemptions() != null) ? coupon.maxRedemptions() - redemptions : null;
+        return new CouponRedeemResponseDTO(code, coupon.discount(), remaining);
+    }
+
+    /**
+     * Loads outside of the cache, like {@link EventCache}, so the query does not run while holding
+     * a lock. If two requests load the same coupon, the first one stored wins and both share it.
+     */
+    private ActiveCoupon findActiveCoupon(CouponKey key) {
+        ActiveCoupon coupon = index.getIfPresent(key);
+        if (coupon != null) {
+            return coupon;
+        }
+        ActiveCoupon loaded = repository.findActiveCoupon(key.eventId(), key.code(), new Date())
+                .map(usage -> new ActiveCoupon(usage.id(), usage.discount(), usage.valid(), usage.maxRedemptions(),
+                        new AtomicInteger(usage.redemptions())))
+                .orElseThrow(() -> new CouponRedemptionException(Reason.NOT_FOUND, "Coupon not found"));
+        ActiveCoupon existing = index.asMap().putIfAbsent(key, loaded);
+        return (existing != null) ? existing : loaded;
+    }
+
+    /**
+     * A redemption that times out may still be committed later. It is reported as failed, which
+     * can only leave a coupon under-redeemed, never over-redeemed.
+     */
+    private Outcome awaitCommit(PendingRedemption redemption) {
+        try {
+            return redemption.outcome().get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CouponRedemptionException(Reason.UNAVAILABLE, "Redemption interrupted");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new CouponRedemptionException(Reason.UNAVAILABLE, "Redemption could not be confirmed");
+        }
+    }
+
+    private void writeRedemptions() {
+        List<PendingRedemption> batch = new ArrayList<>(maxBatchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                PendingRedemption first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, maxBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Confirms, for each coupon, as many redemptions of the batch as the database granted, in the
+     * order they were queued, and rejects the rest.
+     */
+    private void write(List<PendingRedemption> batch) {
+        Map<UUID, Integer> redemptionsByCoupon = new HashMap<>();
+        batch.forEach(redemption -> redemptionsByCoupon.merge(redemption.coupon().id(), 1, Integer::sum));
+
+        Map<UUID, Integer> granted;
+        Outcome notCommitted;
+        try {
+            granted = new HashMap<>(repository.applyRedemptions(redemptionsByCoupon));
+            notCommitted = Outcome.REJECTED;
+        } catch (RuntimeException e) {
+            log.error("erro ao gravar {} resgates de cupons: {}", batch.size(), e.getMessage());
+            granted = new HashMap<>();
+            notCommitted = Outcome.FAILED;
+        }
+
+        for (PendingRedemption redemption : batch) {
+            boolean committed = granted.merge(redemption.coupon().id(), -1, Integer::sum) >= 0;
+            if (!committed) {
+                redemption.coupon().release(1);
+                index.asMap().remove(redemption.key(), redemption.coupon());
+            }
+            redemption.outcome().complete(committed ? Outcome.COMMITTED : notCommitted);
+        }
+    }
+
+    /**
+     * Stops accepting redemptions and lets the writer drain the queue before it exits.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(commitTimeoutMs);
+    }
+
+    private enum Outcome {
+        COMMITTED,
+        /**
+         * The limit was reached before this redemption was granted.
+         */
+        REJECTED,
+        /**
+         * The batch could not be written.
+         */
+        FAILED
+    }
+
+    private record CouponKey(UUID eventId, String code) {
+    }
+
+    private record PendingRedemption(CouponKey key, ActiveCoupon coupon, CompletableFuture<Outcome> outcome) {
+    }
+
+    private record ActiveCoupon(UUID id, Integer discount, Date valid, Integer maxRedemptions, AtomicInteger redemptions) {
+
+        /**
+         * Returns the number of redemptions including this one, or -1 when the coupon is exhausted.
+         */
+        int tryRedeem() {
+            while (true) {
+                int current = redemptions.get();
+                if (maxRedemptions != null && current >= maxRedemptions) {
+                    return -1;
+                }
+                if (redemptions.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        void release(int count) {
+            redemptions.addAndGet(-count);
+        }
+    }
+}
@@ -1,39 +1,127 @@
 package com.eventostec.api.service;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.repositories.CouponBatchRepository;
 import com.eventostec.api.repositories.CouponRepository;
 import com.eventostec.api.repositories.EventRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class CouponService {
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Value("${coupon.batch.max-count:100000}")
+    private int maxBatchCount;
+
+    @Value("${coupon.batch.code-length:10}")
+    private int defaultCodeLength;
+
+    @Value("${coupon.batch.alphabet:ABCDEFGHJKLMNPQRSTUVWXYZ23456789}")
+    private String defaultAlphabet;
+
     private final CouponRepository couponRepository;
     private final EventRepository eventRepository;
+    private final EventCache eventCache;
+    private final CouponBatchRepository couponBatchRepository;
 
+    /**
+     * A code already generated as a single-use coupon of the event is refused, so a buyer's code
+     * never redeems a different coupon. The event row is locked like in {@link #generateCoupons},
+     * so a generation running at the same time cannot draw the code either.
+     */
+    @Transactional
     public Coupon addCouponToEvent(UUID eventId, CouponRequestDTO couponData) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+        couponBatchRepository.lockEvent(eventId);
+        if (couponBatchRepository.isSingleUseCode(eventId, couponData.code())) {
+            throw new IllegalArgumentException("Coupon code already used by a single-use coupon");
+        }
 
         Coupon coupon = new Coupon();
         coupon.setCode(couponData.code());
         coupon.setDiscount(couponData.discount());
         coupon.setValid(new Date(couponData.valid()));
+        coupon.setMaxRedemptions(couponData.maxRedemptions());
         coupon.setEvent(event);
 
-        return couponRepository.save(coupon);
+        Coupon savedCoupon = couponRepository.save(coupon);
+        eventCache.evictDetails(eventId);
+        return savedCoupon;
+    }
+
+    /**
+     * Generates {@code count} random single-use codes for the event and inserts them in batches.
+     * <p>
+     * Codes are checked for collisions in memory, against a single read of the event's existing
+     * codes, instead of one query per code. The event row stays locked until the transaction ends
+     * so concurrent generations for the same event cannot produce the same code. Generated codes
+     * are not listed in the event details.
+     */
+    @Transactional
+    public List<String> generateCoupons(UUID eventId, CouponBatchRequestDTO batchData) {
+        if (batchData.count() > maxBatchCount) {
+            throw new IllegalArgumentException("At most " + maxBatchCount + " coupons can be generated at once");
+        }
+        int length = (batchData.length() != null) ? batchData.length() : defaultCodeLength;
+        char[] alphabet = ((batchData.alphabet() != null) ? batchData.alphabet() : defaultAlphabet).chars()
+                .filter(c -> !Character.isWhitespace(c))
+                .distinct()
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString()
+                .toCharArray();
+        if (alphabet.length < 2) {
+            throw new IllegalArgumentException("The alphabet must have at least 2 distinct characters");
+        }
+
+        if (!couponBatchRepository.lockEvent(eventId)) {
+            throw new IllegalArgumentException("Event not found");
+        }
+        Set<String> existingCodes = couponBatchRepository.findCodesByEventId(eventId);
+
+        // Keeping the code space at most half full bounds the expected draws per code to two.
+        if (Math.pow(alphabet.length, length) < 2.0 * (existingCodes.size() + batchData.count())) {
+            throw new IllegalArgumentException("Too many coupons for codes of length " + length + " over " + alphabet.length + " characters");
+        }
+
+        List<String> codes = generateCodes(batchData.count(), length, alphabet, existingCodes);
+        couponBatchRepository.insertSingleUseCoupons(eventId, codes, batchData.discount(), new Date(batchData.valid()));
+        return codes;
     }
 
     public List<Coupon> consultCoupons(UUID eventId, Date currentDate) {
         return couponRepository.findByEventIdAndValidAfter(eventId, currentDate);
     }
-}
 
+    private static List<String> generateCodes(int count, int length, char[] alphabet, Set<String> existingCodes) {
+        Set<String> generated = new HashSet<>(count * 2);
+        List<String> codes = new ArrayList<>(count);
+        char[] code = new char[length];
+        while (codes.size() < count) {
+            for (int i = 0; i < length; i++) {
+                code[i] = alphabet[RANDOM.nextInt(alphabet.length)];
+            }
+            String candidate = new String(code);
+            if (!existingCodes.contains(candidate) && generated.add(candidate)) {
+                codes.add(candidate);
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,145 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.repositories.EventArchiveRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the live tables sized to the live catalogue. Events that ended more than the retention
+ * period ago are moved, with their addresses and coupons, to the archive tables, and so are
+ * coupons that expired as long ago. Archived events are only reachable through
+ * {@link #getArchivedEvent(UUID)}.
+ * <p>
+ * Rows are moved in small batches with a pause between them, so the job never holds many locks
+ * nor competes with the requests for long. The in-memory indexes and the details cache forget
+ * archived events as their batch is committed. The job runs on its own thread, since the pauses
+ * would otherwise hold a thread of the shared scheduler for the whole run.
+ */
+@Service
+@Slf4j
+public class EventArchiveService {
+
+    private final EventArchiveRepository repository;
+    private final EventSearchIndex searchIndex;
+    private final EventFilterIndex filterIndex;
+    private final EventCache cache;
+    private final boolean enabled;
+    private final long retentionMs;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final long intervalMs;
+    private final ScheduledExecutorService executor;
+
+    public EventArchiveService(EventArchiveRepository repository,
+                               EventSearchIndex searchIndex,
+                               EventFilterIndex filterIndex,
+                               EventCache cache,
+                               @Value("${archive.enabled:true}") boolean enabled,
+                               @Value("${archive.retention-days:30}") int retentionDays,
+                               @Value("${archive.batch-size:500}") int batchSize,
+                               @Value("${archive.batch-pause-ms:200}") long batchPauseMs,
+                               @Value("${archive.interval-ms:3600000}") long intervalMs) {
+        this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.filterIndex = filterIndex;
+        this.cache = cache;
+        this.enabled = enabled;
+        this.retentionMs = TimeUnit.DAYS.toMillis(retentionDays);
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        this.intervalMs = intervalMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::archiveLogged, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Interrupts a run in progress, which stops at its next pause.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A failed run must not cancel the next ones.
+     */
+    private void archiveLogged() {
+        try {
+            archive();
+        } catch (Exception e) {
+            log.error("erro no arquivamento: {}", e.getMessage());
+        }
+    }
+
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+
+        Date now = new Date();
+        Date before = new Date(now.getTime() - retentionMs);
+        long events = 0;
+        long coupons = 0;
+
+        int archived;
+        do {
+            List<EventArchiveRepository.ArchivedEvent> batch = repository.archiveEventsBefore(before, batchSize, now);
+            for (EventArchiveRepository.ArchivedEvent event : batch) {
+                searchIndex.remove(event.id());
+                filterIndex.remove(event.id(), event.date());
+                cache.evictDetails(event.id());
+            }
+            archived = batch.size();
+            events += archived;
+        } while (archived == batchSize && pause());
+
+        do {
+            archived = repository.archiveCouponsBefore(before, batchSize, now);
+            coupons += archived;
+        } while (archived == batchSize && pause());
+
+        if (events > 0 || coupons > 0) {
+            log.info("arquivamento concluído: {} eventos e {} cupons anteriores a {}", events, coupons, before);
+        }
+    }
+
+    public EventDetailsDTO getArchivedEvent(UUID eventId) {
+        return repository.findArchivedEventDetails(eventId)
+                .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+    }
+
+    /**
+     * @return false if the thread was interrupted, which ends the run
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
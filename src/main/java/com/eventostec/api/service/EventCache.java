@@ -0,0 +1,205 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.config.ReplicaDataSource;
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-process cache for event details and the first pages of the upcoming events listing.
+ * <p>
+ * Entries are evicted by size and by age, and never outlive the data they show: details expire
+ * when their first coupon stops being valid and listing pages when their first event starts.
+ * Writes invalidate the affected entries through the {@code evict*} methods, which also bump the
+ * {@link Version versions} that clients revalidate their own copies against. Loads stamped with a
+ * version read from the primary for a while after it was bumped, see {@link Version#load}.
+ */
+@Component
+public class EventCache {
+
+    private final Cache<UUID, EventDetailsDTO> details;
+    private final Cache<UpcomingPageKey, List<EventResponseDTO>> upcomingPages;
+    private final int cachedUpcomingPages;
+    private final long stickyMs;
+    private final AtomicLong detailsEvictions = new AtomicLong();
+    private final AtomicLong upcomingPagesEvictions = new AtomicLong();
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private volatile long detailsModifiedAt = System.currentTimeMillis();
+    private volatile long listingsModifiedAt = detailsModifiedAt;
+
+    public EventCache(@Value("${cache.event-details.max-size:10000}") long detailsMaxSize,
+                      @Value("${cache.event-details.ttl-ms:60000}") long detailsTtlMs,
+                      @Value("${cache.upcoming-pages.count:5}") int cachedUpcomingPages,
+                      @Value("${cache.upcoming-pages.max-size:100}") long upcomingPagesMaxSize,
+                      @Value("${cache.upcoming-pages.ttl-ms:30000}") long upcomingPagesTtlMs,
+                      @Value("${datasource.replicas.sticky-ms:5000}") long stickyMs) {
+        this.details = Caffeine.newBuilder()
+                .maximumSize(detailsMaxSize)
+                .expireAfter(EventCache.<UUID, EventDetailsDTO>expiry(detailsTtlMs, EventCache::firstCouponExpiration))
+                .recordStats()
+                .build();
+        this.upcomingPages = Caffeine.newBuilder()
+                .maximumSize(upcomingPagesMaxSize)
+                .expireAfter(EventCache.<UpcomingPageKey, List<EventResponseDTO>>expiry(upcomingPagesTtlMs, EventCache::firstEventStart))
+                .recordStats()
+                .build();
+        this.cachedUpcomingPages = cachedUpcomingPages;
+        this.stickyMs = stickyMs;
+    }
+
+    public EventDetailsDTO getDetails(UUID eventId, Supplier<EventDetailsDTO> loader) {
+        return getOrLoad(details, detailsEvictions, eventId, () -> detailsVersion().load(loader));
+    }
+
+    /**
+     * Only the first pages are cached, deeper pages are rare enough to always go to the database.
+     */
+    public List<EventResponseDTO> getUpcomingPage(int page, int size, Supplier<List<EventResponseDTO>> loader) {
+        if (page >= cachedUpcomingPages) {
+            return loader.get();
+        }
+        return getOrLoad(upcomingPages, upcomingPagesEvictions, new UpcomingPageKey(page, size), () -> listingsVersion().load(loader));
+    }
+
+    public void evictDetails(UUID eventId) {
+        detailsModifiedAt = System.currentTimeMillis();
+        detailsEvictions.incrementAndGet();
+        details.invalidate(eventId);
+    }
+
+    public void evictUpcomingPages() {
+        listingsModifiedAt = System.currentTimeMillis();
+        upcomingPagesEvictions.incrementAndGet();
+        upcomingPages.invalidateAll();
+    }
+
+    /**
+     * Changes whenever the details of any event are evicted.
+     */
+    public Version detailsVersion() {
+        return new Version(instance, detailsEvictions.get(), detailsModifiedAt, detailsModifiedAt + stickyMs);
+    }
+
+    /**
+     * Changes on every write that evicts the upcoming pages, which are all the writes that can
+     * change a listing, filtered and searched ones included.
+     */
+    public Version listingsVersion() {
+        return new Version(instance, upcomingPagesEvictions.get(), listingsModifiedAt, listingsModifiedAt + stickyMs);
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(
+                toStatsDTO("event-details", details),
+                toStatsDTO("upcoming-pages", upcomingPages));
+    }
+
+    /**
+     * Loads outside of the cache instead of through {@code Cache.get(key, loader)}, which runs the
+     * loader inside a synchronized block and would pin a virtual thread to its carrier for the
+     * whole database query. A value loaded while an eviction happened may already be stale, so it
+     * is returned but not cached.
+     */
+    private static <K, V> V getOrLoad(Cache<K, V> cache, AtomicLong evictions, K key, Supplier<V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long evictionsBeforeLoad = evictions.get();
+        V loaded = loader.get();
+        if (evictions.get() == evictionsBeforeLoad) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private static CacheStatsDTO toStatsDTO(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+
+    /**
+     * When the details stop being valid without any write, because their first coupon expires.
+     */
+    public static long firstCouponExpiration(EventDetailsDTO eventDetails) {
+        return eventDetails.coupons().stream()
+                .map(EventDetailsDTO.CouponDTO::valid)
+                .filter(Objects::nonNull)
+                .mapToLong(Date::getTime)
+                .min()
+                .orElse(Long.MAX_VALUE);
+    }
+
+    /**
+     * When an upcoming listing stops being valid without any write, because its first event starts.
+     */
+    public static long firstEventStart(List<EventResponseDTO> events) {
+        return events.stream()
+                .map(EventResponseDTO::date)
+                .filter(Objects::nonNull)
+                .mapToLong(Date::getTime)
+                .min()
+                .orElse(Long.MAX_VALUE);
+    }
+
+    /**
+     * Expires entries after the ttl or at the deadline computed from the cached value, whichever
+     * comes first. Reads do not extend the expiration.
+     */
+    private static <K, V> Expiry<K, V> expiry(long ttlMs, ToLongFunction<V> deadline) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, V value, long currentTime) {
+                long untilDeadline = deadline.applyAsLong(value) - System.currentTimeMillis();
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(ttlMs, untilDeadline)));
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private record UpcomingPageKey(int page, int size) {
+    }
+
+    /**
+     * Version stamp of cached data. Counters start over on restart and are not shared between
+     * instances, hence the random instance id, and writes made by other instances are not seen.
+     * Replicas are taken to have applied the write that bumped the version from
+     * {@code replicatedAt} on, sticky-ms after it.
+     */
+    public record Version(String instance, long counter, long modifiedAt, long replicatedAt) {
+
+        /**
+         * Runs a load whose result is stamped with this version. Until {@code replicatedAt} a
+         * replica may not have the write yet, and its rows would be cached and revalidated as this
+         * version until the ttl, so the load reads from the primary.
+         */
+        public <T> T load(Supplier<T> loader) {
+            return (System.currentTimeMillis() < replicatedAt) ? ReplicaDataSource.readFromPrimary(loader) : loader.get();
+        }
+    }
+}
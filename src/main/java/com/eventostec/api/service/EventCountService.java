@@ -0,0 +1,105 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.repositories.EventCountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate totals for the event listings.
+ * <p>
+ * Listings are served as slices without a COUNT query, so clients that want a total opt in and
+ * get a planner estimate from {@link EventCountRepository}, cached and re-estimated in the
+ * background. Totals are as accurate as the table statistics and may lag behind them by up to
+ * one refresh interval.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EventCountService {
+
+    private static final int MAX_CACHED_FILTERS = 1_000;
+    private static final int IDLE_REFRESHES_BEFORE_EVICTION = 10;
+
+    @Value("${event.count.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    private final EventCountRepository repository;
+    private final EventFilterIndex filterIndex;
+
+    private volatile Long upcomingCount;
+    private final Map<FilterKey, CachedCount> filteredCounts = new ConcurrentHashMap<>();
+
+    public long estimateUpcomingEvents() {
+        Long count = upcomingCount;
+        if (count == null) {
+            count = repository.estimateUpcomingEvents(new Date());
+            upcomingCount = count;
+        }
+        return count;
+    }
+
+    /**
+     * Counts exactly from the {@link EventFilterIndex} when it covers the dates, it is cheaper than
+     * looking up a cached estimate.
+     */
+    public long estimateFilteredEvents(LocationFilter location, Date startDate, Date endDate) {
+        FilterKey key = new FilterKey(
+                location,
+                (startDate != null) ? startDate : new Date(0),
+                (endDate != null) ? endDate : new Date());
+        if (filterIndex.covers(key.startDate())) {
+            return filterIndex.count(location, key.startDate(), key.endDate());
+        }
+
+        CachedCount cached = filteredCounts.get(key);
+        if (cached != null) {
+            cached.lastReadAt = System.currentTimeMillis();
+            return cached.value;
+        }
+
+        long count = key.count(repository);
+        if (filteredCounts.size() < MAX_CACHED_FILTERS) {
+            filteredCounts.put(key, new CachedCount(count, System.currentTimeMillis()));
+        }
+        return count;
+    }
+
+    @Scheduled(initialDelayString = "${event.count.refresh-interval-ms:60000}",
+            fixedDelayString = "${event.count.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (upcomingCount != null) {
+            upcomingCount = repository.estimateUpcomingEvents(new Date());
+        }
+
+        long idleLimit = System.currentTimeMillis() - refreshIntervalMs * IDLE_REFRESHES_BEFORE_EVICTION;
+        filteredCounts.entrySet().removeIf(entry -> entry.getValue().lastReadAt < idleLimit);
+        filteredCounts.replaceAll((key, cached) -> new CachedCount(key.count(repository), cached.lastReadAt));
+        log.debug("contagens de eventos atualizadas, {} filtros em cache", filteredCounts.size());
+    }
+
+    private record FilterKey(LocationFilter location, Date startDate, Date endDate) {
+
+        long count(EventCountRepository repository) {
+            return repository.estimateFilteredEvents(location, startDate, endDate);
+        }
+    }
+
+    private static final class CachedCount {
+
+        private final long value;
+        private volatile long lastReadAt;
+
+        private CachedCount(long value, long lastReadAt) {
+            this.value = value;
+            this.lastReadAt = lastReadAt;
+        }
+    }
+}
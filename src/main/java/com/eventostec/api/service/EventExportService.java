@@ -0,0 +1,52 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.EventAddressProjection;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.repositories.EventRepository;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports the whole catalogue as NDJSON, one event per line in the JSON of the listings.
+ * <p>
+ * Rows are read through a database cursor and written as they arrive, so memory does not grow
+ * with the catalogue. The lines can be imported again with {@link EventImportService}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EventExportService {
+
+    private final EventRepository repository;
+
+    /**
+     * Same configuration as the mapper of the MVC message converters, so exported events look
+     * like listed ones.
+     */
+    private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json().build().writerFor(EventResponseDTO.class);
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream output) throws IOException {
+        long exported = 0;
+        try (Stream<EventAddressProjection> events = repository.streamAllEvents()) {
+            Iterator<EventAddressProjection> rows = events.iterator();
+            while (rows.hasNext()) {
+                output.write(writer.writeValueAsBytes(EventService.toEventResponseDTO(rows.next())));
+                output.write('\n');
+                exported++;
+            }
+        }
+        output.flush();
+        log.info("exportação concluída: {} eventos", exported);
+        return exported;
+    }
+}
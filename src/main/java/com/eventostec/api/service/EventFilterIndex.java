@@ -0,0 +1,555 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.EventCursor;
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.repositories.EventLocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Opt-in in-memory index answering the city/UF/date filter of the listing without querying the
+ * database, except for loading the page of events it returns by id.
+ * <p>
+ * Only events dated from a few days ago on are kept, in a snapshot of primitive arrays sorted by
+ * (date, id): cities and UFs are dictionary encoded and each UF has a posting list of its rows,
+ * so the heap holds a handful of large arrays, about 32 bytes per event, instead of an object per
+ * event. Writes through {@link EventService} and {@link EventImportService} go to a small sorted
+ * overlay, and the snapshot is periodically reloaded, which also picks up writes made by other
+ * instances, like {@link EventSearchIndex}.
+ */
+@Component
+@Slf4j
+public class EventFilterIndex {
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final Comparator<Row> ROW_ORDER =
+            (row, other) -> Snapshot.compareKeys(row.date(), row.high(), row.low(), other.date(), other.high(), other.low());
+
+    private final EventLocationRepository repository;
+    private final boolean enabled;
+    private final int pastDays;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Index index;
+    private List<Consumer<Index>> pendingWhileRebuilding;
+
+    public EventFilterIndex(EventLocationRepository repository,
+                            @Value("${filter.index.enabled:false}") boolean enabled,
+                            @Value("${filter.index.past-days:1}") int pastDays) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.pastDays = pastDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${filter.index.rebuild-interval-ms:300000}",
+            fixedDelayString = "${filter.index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWhileRebuilding = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Snapshot.Builder builder = new Snapshot.Builder(System.currentTimeMillis() - pastDays * DAY_MS);
+        Index rebuilt = null;
+        try {
+            repository.forEachLocationFrom(new Date(builder.from), builder::add);
+            rebuilt = new Index(builder.build());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rebuilt != null) {
+                    // Replay writes that happened while the locations were being loaded.
+                    Index loaded = rebuilt;
+                    pendingWhileRebuilding.forEach(change -> change.accept(loaded));
+                    index = rebuilt;
+                }
+                pendingWhileRebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("indice de filtro reconstruido com {} eventos, {} MB", rebuilt.snapshot.size,
+                rebuilt.snapshot.sizeInBytes() / (1024 * 1024));
+    }
+
+    public void add(Address address) {
+        Row row = new Row(address.getEventDate().getTime(),
+                address.getEvent().getId().getMostSignificantBits(),
+                address.getEvent().getId().getLeastSignificantBits(),
+                address.getCityNormalized(),
+                address.getUfNormalized());
+        apply(current -> current.add(row));
+    }
+
+    public void remove(UUID eventId, Date date) {
+        Row key = new Row(date.getTime(), eventId.getMostSignificantBits(), eventId.getLeastSignificantBits(), null, null);
+        apply(current -> current.remove(key));
+    }
+
+    /**
+     * Whether the index is loaded and holds every event a filter starting at this date can match.
+     * Callers fall back to the database otherwise.
+     */
+    public boolean covers(Date startDate) {
+        lock.readLock().lock();
+        try {
+            return index != null && startDate.getTime() >= index.snapshot.from;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of a page of matching events, in the (date, id) order of the listing.
+     */
+    public List<UUID> filter(LocationFilter location, Date startDate, Date endDate, int page, int size) {
+        lock.readLock().lock();
+        try {
+            return index.walk(location, startDate.getTime(), endDate.getTime(), null).page((long) page * size, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<UUID> filterAfter(LocationFilter location, Date startDate, Date endDate, EventCursor cursor, int size) {
+        Row after = new Row(cursor.date().getTime(), cursor.id().getMostSignificantBits(), cursor.id().getLeastSignificantBits(), null, null);
+        lock.readLock().lock();
+        try {
+            return index.walk(location, startDate.getTime(), endDate.getTime(), after).page(0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(LocationFilter location, Date startDate, Date endDate) {
+        lock.readLock().lock();
+        try {
+            return index.walk(location, startDate.getTime(), endDate.getTime(), null).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Index> change) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+            }
+            if (pendingWhileRebuilding != null) {
+                pendingWhileRebuilding.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * An event written since the snapshot was loaded. Ids are compared unsigned, which is how
+     * Postgres orders uuids.
+     */
+    private record Row(long date, long high, long low, String city, String uf) {
+
+        boolean matches(LocationFilter location) {
+            return (location.city().isEmpty() || location.cityMatches(city))
+                    && (location.uf().isEmpty() || location.ufMatches(uf));
+        }
+    }
+
+    /**
+     * The snapshot plus the rows added to and removed from it since it was loaded. Not thread
+     * safe, access is guarded by the lock of the enclosing component.
+     */
+    private static final class Index {
+
+        private final Snapshot snapshot;
+        private final BitSet removed = new BitSet();
+        private final NavigableSet<Row> added = new TreeSet<>(ROW_ORDER);
+
+        Index(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Events dated before the snapshot window are never queried here, so they are not kept.
+         */
+        void add(Row row) {
+            if (row.date() < snapshot.from || snapshot.positionOf(row.date(), row.high(), row.low()) >= 0) {
+                return;
+            }
+            added.add(row);
+        }
+
+        void remove(Row key) {
+            int position = snapshot.positionOf(key.date(), key.high(), key.low());
+            if (position >= 0) {
+                removed.set(position);
+            }
+            added.remove(key);
+        }
+
+        Walk walk(LocationFilter location, long startDate, long endDate, Row after) {
+            Row from = (after != null && after.date() >= startDate) ? after : new Row(startDate, 0L, 0L, null, null);
+            boolean inclusive = from != after;
+            Iterator<Row> addedMatches = added.tailSet(from, inclusive).stream()
+                    .takeWhile(row -> row.date() <= endDate)
+                    .filter(row -> row.matches(location))
+                    .iterator();
+            return new Walk(snapshot, removed, location, snapshot.firstFrom(from.date(), from.high(), from.low(), inclusive), endDate, addedMatches);
+        }
+    }
+
+    /**
+     * Walks the matching events in (date, id) order, merging the snapshot with the overlay.
+     */
+    private static final class Walk {
+
+        private final Snapshot snapshot;
+        private final BitSet removed;
+        private final long endDate;
+        private final BitSet cityCodes;
+        private final int[] postings;
+        private int next;
+        private final Iterator<Row> added;
+
+        Walk(Snapshot snapshot, BitSet removed, LocationFilter location, int firstPosition, long endDate, Iterator<Row> added) {
+            this.snapshot = snapshot;
+            this.removed = removed;
+            this.endDate = endDate;
+            this.added = added;
+            this.cityCodes = snapshot.cityCodes(location);
+            if (location.uf().isEmpty()) {
+                this.postings = null;
+                this.next = firstPosition;
+            } else {
+                this.postings = snapshot.postings(location);
+                int found = Arrays.binarySearch(postings, firstPosition);
+                this.next = (found >= 0) ? found : -(found + 1);
+            }
+        }
+
+        List<UUID> page(long skip, int size) {
+            List<UUID> ids = new ArrayList<>(size);
+            int position = nextPosition();
+            Row row = added.hasNext() ? added.next() : null;
+            while ((position >= 0 || row != null) && ids.size() < size) {
+                boolean fromSnapshot = row == null
+                        || (position >= 0 && snapshot.compare(position, row.date(), row.high(), row.low()) < 0);
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ids.add(fromSnapshot ? snapshot.id(position) : new UUID(row.high(), row.low()));
+                }
+                if (fromSnapshot) {
+                    position = nextPosition();
+                } else {
+                    row = added.hasNext() ? added.next() : null;
+                }
+            }
+            return ids;
+        }
+
+        long count() {
+            long count = 0;
+            while (nextPosition() >= 0) {
+                count++;
+            }
+            while (added.hasNext()) {
+                added.next();
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Returns the next matching position of the snapshot, or -1 past the end date.
+         */
+        private int nextPosition() {
+            while (true) {
+                int position;
+                if (postings != null) {
+                    if (next >= postings.length) {
+                        return -1;
+                    }
+                    position = postings[next++];
+                } else {
+                    if (next >= snapshot.size) {
+                        return -1;
+                    }
+                    position = next++;
+                }
+                if (snapshot.dates[position] > endDate) {
+                    return -1;
+                }
+                int city = snapshot.cityCodes[position];
+                if ((cityCodes == null || cityCodes.get(city)) && !removed.get(position)) {
+                    return position;
+                }
+            }
+        }
+    }
+
+    /**
+     * Immutable, column-oriented copy of the events dated from {@code from} on, sorted by (date, id).
+     * Package-private for the benchmarks.
+     */
+    static final class Snapshot {
+
+        private static final int[] NO_POSTINGS = new int[0];
+
+        final long from;
+        final int size;
+        private final long[] dates;
+        private final long[] highs;
+        private final long[] lows;
+        private final int[] cityCodes;
+        private final String[] cities;
+        private final String[] ufs;
+        private final int[][] ufPostings;
+
+        private Snapshot(long from, int size, long[] dates, long[] highs, long[] lows, int[] cityCodes,
+                         String[] cities, String[] ufs, int[][] ufPostings) {
+            this.from = from;
+            this.size = size;
+            this.dates = dates;
+            this.highs = highs;
+            this.lows = lows;
+            this.cityCodes = cityCodes;
+            this.cities = cities;
+            this.ufs = ufs;
+            this.ufPostings = ufPostings;
+        }
+
+        long sizeInBytes() {
+            return (long) size * (3 * Long.BYTES + 2 * Integer.BYTES);
+        }
+
+        UUID id(int position) {
+            return new UUID(highs[position], lows[position]);
+        }
+
+        int compare(int position, long date, long high, long low) {
+            return compareKeys(dates[position], highs[position], lows[position], date, high, low);
+        }
+
+        static int compareKeys(long date, long high, long low, long otherDate, long otherHigh, long otherLow) {
+            int byDate = Long.compare(date, otherDate);
+            if (byDate != 0) {
+                return byDate;
+            }
+            int byHigh = Long.compareUnsigned(high, otherHigh);
+            return (byHigh != 0) ? byHigh : Long.compareUnsigned(low, otherLow);
+        }
+
+        int positionOf(long date, long high, long low) {
+            for (int position = firstDate(date); position < size && dates[position] == date; position++) {
+                if (highs[position] == high && lows[position] == low) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the first position at or, when not inclusive, after the given key.
+         */
+        int firstFrom(long date, long high, long low, boolean inclusive) {
+            int position = firstDate(date);
+            while (position < size && compare(position, date, high, low) < (inclusive ? 0 : 1)) {
+                position++;
+            }
+            return position;
+        }
+
+        private int firstDate(long date) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates[middle] < date) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the codes of the cities matching the filter, or null when it does not filter by
+         * city. The dictionary is sorted, so the cities sharing a prefix have consecutive codes;
+         * a substring has to be looked for in every city of the dictionary.
+         */
+        BitSet cityCodes(LocationFilter location) {
+            if (location.city().isEmpty()) {
+                return null;
+            }
+            BitSet codes = new BitSet(cities.length);
+            if (location.contains()) {
+                for (int code = 0; code < cities.length; code++) {
+                    if (cities[code].contains(location.city())) {
+                        codes.set(code);
+                    }
+                }
+                return codes;
+            }
+            int found = Arrays.binarySearch(cities, location.city());
+            if (!location.prefix()) {
+                if (found >= 0) {
+                    codes.set(found);
+                }
+                return codes;
+            }
+            int first = (found >= 0) ? found : -(found + 1);
+            int last = first;
+            while (last < cities.length && cities[last].startsWith(location.city())) {
+                last++;
+            }
+            codes.set(first, last);
+            return codes;
+        }
+
+        /**
+         * Returns the sorted positions of the events in the UFs matching the filter.
+         */
+        int[] postings(LocationFilter location) {
+            if (!location.contains()) {
+                int found = Arrays.binarySearch(ufs, location.uf());
+                return (found >= 0) ? ufPostings[found] : NO_POSTINGS;
+            }
+            IntStream positions = IntStream.empty();
+            for (int uf = 0; uf < ufs.length; uf++) {
+                if (ufs[uf].contains(location.uf())) {
+                    positions = IntStream.concat(positions, Arrays.stream(ufPostings[uf]));
+                }
+            }
+            return positions.sorted().toArray();
+        }
+
+        /**
+         * Accumulates rows in growable arrays, in the (date, id) order the repository reads them.
+         */
+        static final class Builder {
+
+            private static final int INITIAL_CAPACITY = 1024;
+
+            final long from;
+            private int size;
+            private long[] dates = new long[INITIAL_CAPACITY];
+            private long[] highs = new long[INITIAL_CAPACITY];
+            private long[] lows = new long[INITIAL_CAPACITY];
+            private int[] cityCodes = new int[INITIAL_CAPACITY];
+            private int[] ufCodes = new int[INITIAL_CAPACITY];
+            private final Map<String, Integer> cityDictionary = new HashMap<>();
+            private final Map<String, Integer> ufDictionary = new HashMap<>();
+
+            Builder(long from) {
+                this.from = from;
+            }
+
+            void add(UUID eventId, String city, String uf, long date) {
+                long high = eventId.getMostSignificantBits();
+                long low = eventId.getLeastSignificantBits();
+                if (size > 0 && compareKeys(dates[size - 1], highs[size - 1], lows[size - 1], date, high, low) >= 0) {
+                    throw new IllegalStateException("Locations must be added in (date, id) order");
+                }
+                if (size == dates.length) {
+                    int capacity = size + (size >> 1);
+                    dates = Arrays.copyOf(dates, capacity);
+                    highs = Arrays.copyOf(highs, capacity);
+                    lows = Arrays.copyOf(lows, capacity);
+                    cityCodes = Arrays.copyOf(cityCodes, capacity);
+                    ufCodes = Arrays.copyOf(ufCodes, capacity);
+                }
+                dates[size] = date;
+                highs[size] = high;
+                lows[size] = low;
+                cityCodes[size] = cityDictionary.computeIfAbsent(city, k -> cityDictionary.size());
+                ufCodes[size] = ufDictionary.computeIfAbsent(uf, k -> ufDictionary.size());
+                size++;
+            }
+
+            /**
+             * Recodes the dictionaries in sorted order and builds the per-UF posting lists, which
+             * come out sorted by position, so by (date, id), too.
+             */
+            Snapshot build() {
+                String[] cities = sortedKeys(cityDictionary);
+                int[] cityRecoding = recoding(cityDictionary, cities);
+                int[] recodedCities = new int[size];
+                for (int position = 0; position < size; position++) {
+                    recodedCities[position] = cityRecoding[cityCodes[position]];
+                }
+
+                String[] ufs = sortedKeys(ufDictionary);
+                int[] ufRecoding = recoding(ufDictionary, ufs);
+                int[] ufSizes = new int[ufs.length];
+                for (int position = 0; position < size; position++) {
+                    ufSizes[ufRecoding[ufCodes[position]]]++;
+                }
+                int[][] ufPostings = new int[ufs.length][];
+                for (int uf = 0; uf < ufs.length; uf++) {
+                    ufPostings[uf] = new int[ufSizes[uf]];
+                }
+                int[] filled = new int[ufs.length];
+                for (int position = 0; position < size; position++) {
+                    int uf = ufRecoding[ufCodes[position]];
+                    ufPostings[uf][filled[uf]++] = position;
+                }
+
+                return new Snapshot(from, size, Arrays.copyOf(dates, size), Arrays.copyOf(highs, size),
+                        Arrays.copyOf(lows, size), recodedCities, cities, ufs, ufPostings);
+            }
+
+            private static String[] sortedKeys(Map<String, Integer> dictionary) {
+                String[] keys = dictionary.keySet().toArray(new String[0]);
+                Arrays.sort(keys);
+                return keys;
+            }
+
+            private static int[] recoding(Map<String, Integer> dictionary, String[] sortedKeys) {
+                int[] recoding = new int[sortedKeys.length];
+                for (int code = 0; code < sortedKeys.length; code++) {
+                    recoding[dictionary.get(sortedKeys[code])] = code;
+                }
+                return recoding;
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventImportResultDTO;
+import com.eventostec.api.domain.event.EventRequestDTO;
+import com.eventostec.api.mappers.EventMapper;
+import com.eventostec.api.repositories.EventImportRepository;
+import com.eventostec.api.utils.CsvReader;
+import com.eventostec.api.utils.LineReader;
+import com.eventostec.api.utils.TimeOrderedUuid;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Imports events in bulk from NDJSON or CSV.
+ * <p>
+ * The input is parsed one row at a time and never held in memory as a whole. Every row is checked
+ * against the same constraints as {@link EventRequestDTO}; valid rows are written in chunks, each
+ * chunk in its own transaction with batched inserts. Invalid rows and failed chunks are reported
+ * by line number and do not stop the import.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EventImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("title", "description", "date", "city", "state", "remote", "eventUrl");
+
+    @Value("${event.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${event.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${event.import.max-line-length:65536}")
+    private int maxLineLength;
+
+    private final EventImportRepository importRepository;
+    private final EventSearchIndex searchIndex;
+    private final EventFilterIndex filterIndex;
+    private final EventCache cache;
+    private final EventMapper mapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Lines longer than {@code event.import.max-line-length} characters are reported as errors
+     * without being held in memory whole.
+     */
+    public EventImportResultDTO importNdjson(InputStream input) throws IOException {
+        LineReader reader = new LineReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), maxLineLength);
+        long[] lineNumber = {0};
+        return importRows(() -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            if (reader.truncated()) {
+                return ParsedRow.error(lineNumber[0], "Linha maior que " + maxLineLength + " caracteres");
+            }
+            try {
+                ImportedEvent event = objectMapper.readValue(line, ImportedEvent.class);
+                return ParsedRow.of(lineNumber[0], event.toRequest());
+            } catch (JsonProcessingException e) {
+                return ParsedRow.error(lineNumber[0], "JSON inválido: " + e.getOriginalMessage());
+            }
+        });
+    }
+
+    /**
+     * The first record must be a header naming the columns, in any order. Unknown columns are
+     * ignored and missing ones are read as empty.
+     */
+    public EventImportResultDTO importCsv(InputStream input) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header is missing");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim(), i);
+        }
+        if (CSV_COLUMNS.stream().noneMatch(columns::containsKey)) {
+            throw new IllegalArgumentException("CSV header must name the columns " + CSV_COLUMNS);
+        }
+
+        return importRows(() -> {
+            List<String> record = reader.readRecord();
+            if (record == null) {
+                return null;
+            }
+            Map<String, String> values = new HashMap<>();
+            columns.forEach((column, index) -> {
+                if (index < record.size() && !record.get(index).isBlank()) {
+                    values.put(column, record.get(index).trim());
+                }
+            });
+            try {
+                return ParsedRow.of(reader.recordLine(), new EventRequestDTO(
+                        values.get("title"),
+                        values.get("description"),
+                        values.containsKey("date") ? Long.valueOf(values.get("date")) : null,
+                        values.get("city"),
+                        values.get("state"),
+                        values.containsKey("remote") ? Boolean.valueOf(values.get("remote")) : null,
+                        values.get("eventUrl"),
+                        null));
+            } catch (NumberFormatException e) {
+                return ParsedRow.error(reader.recordLine(), "date: '" + values.get("date") + "' não é um timestamp válido");
+            }
+        });
+    }
+
+    private EventImportResultDTO importRows(RowReader reader) throws IOException {
+        long start = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        ParsedRow row;
+        while ((row = reader.next()) != null) {
+            String error = (row.error() != null) ? row.error() : validate(row.data());
+            if (error != null) {
+                progress.fail(row.line(), error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                write(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, progress);
+        }
+        if (progress.imported > 0) {
+            cache.evictUpcomingPages();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = (progress.imported + progress.failed) / Math.max(elapsedNanos / 1e9, 1e-3);
+        log.info("importação concluída: {} eventos importados, {} linhas com erro, {} linhas/s",
+                progress.imported, progress.failed, Math.round(rowsPerSecond));
+        return new EventImportResultDTO(progress.imported, progress.failed,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond, progress.errors);
+    }
+
+    /**
+     * A missing remote is imported as false, since the column does not accept null, and in-person
+     * events need a city because their address row requires one.
+     */
+    private String validate(EventRequestDTO data) {
+        Set<ConstraintViolation<EventRequestDTO>> violations = validator.validate(data);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!Boolean.TRUE.equals(data.remote()) && data.city() == null) {
+            return "city: A cidade deve ser informada para eventos presenciais";
+        }
+        return null;
+    }
+
+    private void write(List<ParsedRow> chunk, ImportProgress progress) {
+        List<Event> events = new ArrayList<>(chunk.size());
+        List<Address> addresses = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            Event event = mapper.toEntity(row.data(), "");
+            event.setId(TimeOrderedUuid.next());
+            event.setRemote(Boolean.TRUE.equals(row.data().remote()));
+            events.add(event);
+            if (!event.getRemote()) {
+                addresses.add(AddressService.newAddress(TimeOrderedUuid.next(), row.data().city(), row.data().state(), event));
+            }
+        }
+
+        try {
+            importRepository.insertAll(events, addresses);
+        } catch (DataAccessException e) {
+            log.error("erro ao gravar lote de {} eventos: {}", chunk.size(), e.getMessage());
+            chunk.forEach(row -> progress.fail(row.line(), "Erro ao gravar o lote desta linha no banco de dados"));
+            return;
+        }
+        events.forEach(searchIndex::add);
+        addresses.forEach(filterIndex::add);
+        progress.imported += events.size();
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        /**
+         * Returns the next row, or {@code null} at the end of the input.
+         */
+        ParsedRow next() throws IOException;
+    }
+
+    private record ParsedRow(long line, EventRequestDTO data, String error) {
+
+        static ParsedRow of(long line, EventRequestDTO data) {
+            return new ParsedRow(line, data, null);
+        }
+
+        static ParsedRow error(long line, String error) {
+            return new ParsedRow(line, null, error);
+        }
+    }
+
+    private record ImportedEvent(String title, String description, Long date, String city, String state,
+                                 Boolean remote, String eventUrl) {
+
+        EventRequestDTO toRequest() {
+            return new EventRequestDTO(title, description, date, city, state, remote, eventUrl, null);
+        }
+    }
+
+    private final class ImportProgress {
+
+        private long imported;
+        private long failed;
+        private final List<EventImportResultDTO.RowError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new EventImportResultDTO.RowError(line, message));
+            }
+        }
+    }
+}
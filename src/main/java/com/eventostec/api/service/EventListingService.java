@@ -0,0 +1,108 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.repositories.EventListingRebuildRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the listing rows from the event and address tables. {@link EventService} and the
+ * import keep them up to date as they write; the rebuild is for the backfill and for rows written
+ * outside the application. Events are rewritten in batches, each in its own transaction, so the
+ * listings stay readable while it runs.
+ * <p>
+ * The rebuild runs in the background, one at a time. Once the rows are rewritten, the search and
+ * filter indexes are reloaded from them and the cached listings are evicted, which also makes the
+ * {@link UpcomingPagesSnapshot} and the listing ETags stale.
+ */
+@Service
+@Slf4j
+public class EventListingService {
+
+    private final EventListingRebuildRepository rebuildRepository;
+    private final EventSearchIndex searchIndex;
+    private final EventFilterIndex filterIndex;
+    private final EventCache cache;
+    private final String adminKey;
+    private final int batchSize;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService executor;
+
+    public EventListingService(EventListingRebuildRepository rebuildRepository,
+                               EventSearchIndex searchIndex,
+                               EventFilterIndex filterIndex,
+                               EventCache cache,
+                               @Value("${admin.key}") String adminKey,
+                               @Value("${listing.rebuild.batch-size:1000}") int batchSize) {
+        this.rebuildRepository = rebuildRepository;
+        this.searchIndex = searchIndex;
+        this.filterIndex = filterIndex;
+        this.cache = cache;
+        this.adminKey = adminKey;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listing-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return false when a rebuild is already running, which is not restarted
+     */
+    public boolean startRebuild(String adminKey) {
+        if (adminKey == null || !adminKey.equals(this.adminKey)) {
+            throw new IllegalArgumentException("Invalid admin key");
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("erro ao reconstruir a listagem: {}", e.getMessage());
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return the number of events rewritten
+     */
+    public long rebuild() {
+        long start = System.nanoTime();
+        long rebuilt = 0;
+        UUID after = EventListingRebuildRepository.FIRST;
+        List<UUID> batch;
+        do {
+            batch = rebuildRepository.rebuildAfter(after, batchSize);
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1);
+                rebuilt += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        searchIndex.rebuild();
+        filterIndex.rebuild();
+        cache.evictUpcomingPages();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("listagem reconstruida com {} eventos em {} ms", rebuilt, elapsedMs);
+        return rebuilt;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
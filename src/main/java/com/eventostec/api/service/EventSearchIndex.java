@@ -0,0 +1,340 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.repositories.EventSearchTextRepository;
+import com.eventostec.api.utils.TextUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory trigram index over event titles and descriptions.
+ * <p>
+ * Searches are answered from memory and only return the ids of the requested page, so the
+ * database is hit once per search for that page. The index is loaded on startup from the
+ * normalized title and description of the listing rows, streamed rather than mapped to entities,
+ * kept up to date by {@link EventService} on create/delete and fully rebuilt periodically to pick
+ * up writes made by other instances.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EventSearchIndex {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Value("${search.index.min-similarity:0.4}")
+    private double minSimilarity;
+
+    private final EventSearchTextRepository searchTextRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Index index = new Index(true);
+    private List<Consumer<Index>> pendingWhileRebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${search.index.rebuild-interval-ms:300000}",
+            fixedDelayString = "${search.index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        // A lock rather than synchronized, so a virtual thread loading the events does not pin its carrier.
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWhileRebuilding = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index(false);
+        boolean loaded = false;
+        try {
+            searchTextRepository.forEachSearchText(rebuilt::add);
+            rebuilt.trim();
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    // Replay writes that happened while the events were being loaded.
+                    pendingWhileRebuilding.forEach(change -> change.accept(rebuilt));
+                    index = rebuilt;
+                }
+                pendingWhileRebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("indice de busca reconstruido com {} eventos", rebuilt.size());
+    }
+
+    public void add(Event event) {
+        long date = event.getDate() != null ? event.getDate().getTime() : 0L;
+        apply(current -> current.add(event.getId(), date, event.getTitle(), event.getDescription()));
+    }
+
+    public void remove(UUID eventId) {
+        apply(current -> current.remove(eventId));
+    }
+
+    /**
+     * Returns the ids of the events matching the query, best matches first. A blank query
+     * matches every event, ordered by date.
+     */
+    public List<UUID> search(String query, int page, int size) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, minSimilarity, page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingWhileRebuilding != null) {
+                pendingWhileRebuilding.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record IndexedEvent(UUID id, long date) {
+    }
+
+    private record Match(IndexedEvent event, double score) {
+    }
+
+    /**
+     * Not thread safe, access is guarded by the lock of the enclosing component.
+     * <p>
+     * Events are numbered in insertion order and postings hold those numbers in plain int arrays,
+     * about 4 bytes per trigram of each event instead of a set entry. Removing an event only
+     * clears its slot; its postings stay until the next rebuild and searches skip them.
+     * <p>
+     * The same numbers are also kept sorted by date, for the blank query. They are sorted once the
+     * index is loaded, and each event added afterwards is inserted at its place.
+     */
+    private static final class Index {
+
+        private static final Comparator<IndexedEvent> BY_DATE =
+                Comparator.comparingLong(IndexedEvent::date).thenComparing(IndexedEvent::id);
+
+        private final List<IndexedEvent> events = new ArrayList<>();
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final Map<String, Postings> titlePostings = new HashMap<>();
+        private final Map<String, Postings> descriptionPostings = new HashMap<>();
+        private final Postings byDate = new Postings();
+        private boolean loaded;
+
+        /**
+         * An index that is not {@code loaded} appends events in any order until {@link #trim()}.
+         */
+        Index(boolean loaded) {
+            this.loaded = loaded;
+        }
+
+        void add(UUID id, long date, String title, String description) {
+            remove(id);
+            int ordinal = events.size();
+            IndexedEvent event = new IndexedEvent(id, date);
+            events.add(event);
+            ordinals.put(id, ordinal);
+            if (loaded) {
+                byDate.insert(insertionPoint(event), ordinal);
+            } else {
+                byDate.add(ordinal);
+            }
+            TextUtil.trigrams(title).forEach(gram -> titlePostings.computeIfAbsent(gram, k -> new Postings()).add(ordinal));
+            TextUtil.trigrams(description).forEach(gram -> descriptionPostings.computeIfAbsent(gram, k -> new Postings()).add(ordinal));
+        }
+
+        void remove(UUID eventId) {
+            Integer ordinal = ordinals.remove(eventId);
+            if (ordinal != null) {
+                events.set(ordinal, null);
+            }
+        }
+
+        int size() {
+            return ordinals.size();
+        }
+
+        /**
+         * Sorts the events by date and drops the spare capacity of the postings once the index is
+         * loaded.
+         */
+        void trim() {
+            byDate.sort(Comparator.comparing(events::get, Comparator.nullsLast(BY_DATE)));
+            titlePostings.values().forEach(Postings::trim);
+            descriptionPostings.values().forEach(Postings::trim);
+            loaded = true;
+        }
+
+        /**
+         * Binary search over the date order. Removed events keep their place in it, so a cleared
+         * slot is compared by the neighbour that is still indexed, or skipped when there is none.
+         */
+        private int insertionPoint(IndexedEvent event) {
+            int low = 0;
+            int high = byDate.size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int probe = middle;
+                while (probe < high && events.get(byDate.ordinals[probe]) == null) {
+                    probe++;
+                }
+                if (probe == high) {
+                    high = middle;
+                } else if (BY_DATE.compare(events.get(byDate.ordinals[probe]), event) < 0) {
+                    low = probe + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        List<UUID> search(String query, double minSimilarity, int page, int size) {
+            Set<String> queryGrams = TextUtil.trigrams(query);
+
+            if (queryGrams.isEmpty()) {
+                List<UUID> ids = new ArrayList<>(size);
+                long skip = (long) page * size;
+                for (int i = 0; i < byDate.size && ids.size() < size; i++) {
+                    IndexedEvent event = events.get(byDate.ordinals[i]);
+                    if (event != null && skip-- <= 0) {
+                        ids.add(event.id());
+                    }
+                }
+                return ids;
+            }
+
+            // Counts, per event, how many of the query trigrams show up in the title and in the description.
+            int[] titleHits = new int[events.size()];
+            int[] descriptionHits = new int[events.size()];
+            Postings candidates = new Postings();
+            for (String gram : queryGrams) {
+                Postings title = titlePostings.get(gram);
+                if (title != null) {
+                    title.forEach(ordinal -> {
+                        if (titleHits[ordinal]++ == 0 && descriptionHits[ordinal] == 0) {
+                            candidates.add(ordinal);
+                        }
+                    });
+                }
+                Postings description = descriptionPostings.get(gram);
+                if (description != null) {
+                    description.forEach(ordinal -> {
+                        if (descriptionHits[ordinal]++ == 0 && titleHits[ordinal] == 0) {
+                            candidates.add(ordinal);
+                        }
+                    });
+                }
+            }
+
+            int total = queryGrams.size();
+            List<Match> matches = new ArrayList<>();
+            candidates.forEach(ordinal -> {
+                IndexedEvent event = events.get(ordinal);
+                if (event != null && Math.max(titleHits[ordinal], descriptionHits[ordinal]) >= minSimilarity * total) {
+                    matches.add(new Match(event, (double) (TITLE_WEIGHT * titleHits[ordinal] + DESCRIPTION_WEIGHT * descriptionHits[ordinal])
+                            / ((TITLE_WEIGHT + DESCRIPTION_WEIGHT) * total)));
+                }
+            });
+            return matches.stream()
+                    .sorted(Comparator.comparingDouble(Match::score).reversed()
+                            .thenComparing(Match::event, BY_DATE))
+                    .skip((long) page * size)
+                    .limit(size)
+                    .map(match -> match.event().id())
+                    .toList();
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size * 2));
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        void insert(int index, int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size * 2));
+            }
+            System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+            ordinals[index] = ordinal;
+            size++;
+        }
+
+        void trim() {
+            if (size < ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size);
+            }
+        }
+
+        /**
+         * Boxes the ordinals for the comparator, only done once per rebuild.
+         */
+        void sort(Comparator<Integer> order) {
+            Integer[] sorted = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = ordinals[i];
+            }
+            Arrays.sort(sorted, order);
+            ordinals = new int[size];
+            for (int i = 0; i < size; i++) {
+                ordinals[i] = sorted[i];
+            }
+        }
+
+        void forEach(IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(ordinals[i]);
+            }
+        }
+    }
+}
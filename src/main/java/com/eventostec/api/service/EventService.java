@@ -1,30 +1,29 @@
 package com.eventostec.api.service;
 
 import com.eventostec.api.domain.address.Address;
-import com.eventostec.api.domain.coupon.Coupon;
 import com.eventostec.api.domain.event.*;
 import com.eventostec.api.mappers.EventMapper;
+import com.eventostec.api.repositories.EventFilterRepository;
+import com.eventostec.api.repositories.EventListingRepository;
 import com.eventostec.api.repositories.EventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.GetUrlRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import org.springframework.transaction.support.TransactionOperations;
 
-
-import java.nio.ByteBuffer;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,67 +31,94 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EventService {
 
-    @Value("${aws.bucket.name}")
-    private String bucketName;
-
     @Value("${admin.key}")
     private String adminKey;
 
-    private final S3Client s3Client;
+    private final ImageUploadService imageUploadService;
+    private final ImageVariantService imageVariantService;
     private final AddressService addressService;
-    private final CouponService couponService;
     private final EventRepository repository;
+    private final EventListingRepository listingRepository;
+    private final EventFilterRepository filterRepository;
+    private final TransactionOperations transactionOperations;
+    private final EventSearchIndex searchIndex;
+    private final EventFilterIndex filterIndex;
+    private final EventCache cache;
+    private final SingleFlight singleFlight;
 
     @Autowired
     private EventMapper mapper;
 
     public Event createEvent(EventRequestDTO data) {
-        String imgUrl = "";
-
+        Optional<ImageUploadService.UploadedImage> image = Optional.empty();
 
-        if (data.image() != null) {
-            imgUrl = this.uploadImg(data.image());
+        if (data.image() != null && !data.image().isEmpty()) {
+            image = this.imageUploadService.upload(data.image());
         }
-        Event newEvent = mapper.toEntity(data, imgUrl);
-        repository.save(newEvent);
-
-        if (Boolean.FALSE.equals(data.remote())) {
-            this.addressService.createAddress(data, newEvent);
+        Event newEvent = mapper.toEntity(data, image.map(ImageUploadService.UploadedImage::url).orElse(""));
+
+        // The event, its address and its listing row are committed together, the upload stays out of the transaction.
+        Address address = this.transactionOperations.execute(status -> {
+            repository.save(newEvent);
+            Address created = Boolean.FALSE.equals(data.remote()) ? this.addressService.createAddress(data, newEvent) : null;
+            this.listingRepository.save(EventListing.of(newEvent, created));
+            return created;
+        });
+
+        if (address != null) {
+            this.filterIndex.add(address);
         }
+        this.searchIndex.add(newEvent);
+        this.cache.evictUpcomingPages();
+        image.ifPresent(uploaded -> this.imageVariantService.generateVariants(newEvent.getId(), uploaded.key()));
 
         return newEvent;
     }
 
     public List<EventResponseDTO> getUpcomingEvents(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<EventAddressProjection> eventsPage = this.repository.findUpcomingEvents(new Date(), pageable);
-        return eventsPage.map(event -> new EventResponseDTO(
-                        event.getId(),
-                        event.getTitle(),
-                        event.getDescription(),
-                        event.getDate(),
-                        event.getCity() != null ? event.getCity() : "",
-                        event.getUf() != null ? event.getUf() : "",
-                        event.getRemote(),
-                        event.getEventUrl(),
-                        event.getImgUrl())
-                )
+        return this.cache.getUpcomingPage(page, size, () -> {
+            Pageable pageable = PageRequest.of(page, size);
+            Slice<EventAddressProjection> eventsPage = this.repository.findUpcomingEvents(new Date(), pageable);
+            return eventsPage.map(EventService::toEventResponseDTO)
+                    .stream().toList();
+        });
+    }
+
+    /**
+     * The first upcoming events, straight from the database, for callers that keep their own
+     * copy and must not build it from cached pages.
+     */
+    public List<EventResponseDTO> loadUpcomingEvents(int limit) {
+        return this.repository.findUpcomingEvents(new Date(), PageRequest.of(0, limit))
+                .map(EventService::toEventResponseDTO)
                 .stream().toList();
     }
 
+    public List<EventResponseDTO> getUpcomingEvents(EventCursor cursor, int size) {
+        return this.repository.findUpcomingEventsAfter(new Date(), cursor.date(), cursor.id(), Limit.of(size))
+                .stream().map(EventService::toEventResponseDTO).toList();
+    }
+
     public EventDetailsDTO getEventDetails(UUID eventId) {
-        Event event = repository.findById(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+        return this.cache.getDetails(eventId, () -> this.singleFlight.run("event-details",
+                new DetailsKey(this.cache.detailsVersion().counter(), eventId),
+                () -> loadEventDetails(eventId)));
+    }
 
-        Optional<Address> address = addressService.findByEventId(eventId);
+    private EventDetailsDTO loadEventDetails(UUID eventId) {
+        List<EventDetailsProjection> rows = repository.findEventDetails(eventId, new Date());
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Event not found");
+        }
 
-        List<Coupon> coupons = couponService.consultCoupons(eventId, new Date());
+        EventDetailsProjection event = rows.get(0);
 
-        List<EventDetailsDTO.CouponDTO> couponDTOs = coupons.stream()
-                .map(coupon -> new EventDetailsDTO.CouponDTO(
-                        coupon.getCode(),
-                        coupon.getDiscount(),
-                        coupon.getValid()))
+        List<EventDetailsDTO.CouponDTO> couponDTOs = rows.stream()
+                .filter(row -> row.getCouponCode() != null)
+                .map(row -> new EventDetailsDTO.CouponDTO(
+                        row.getCouponCode(),
+                        row.getCouponDiscount(),
+                        row.getCouponValid()))
                 .collect(Collectors.toList());
 
         return new EventDetailsDTO(
@@ -100,8 +126,8 @@ public class EventService {
                 event.getTitle(),
                 event.getDescription(),
                 event.getDate(),
-                address.isPresent() ? address.get().getCity() : "",
-                address.isPresent() ? address.get().getUf() : "",
+                event.getCity() != null ? event.getCity() : "",
+                event.getUf() != null ? event.getUf() : "",
                 event.getImgUrl(),
                 event.getEventUrl(),
                 couponDTOs);
@@ -112,70 +138,103 @@ public class EventService {
             throw new IllegalArgumentException("Invalid admin key");
         }
 
-        this.repository.delete(this.repository.findById(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Event not found")));
+        Event event = this.transactionOperations.execute(status -> {
+            Event existing = this.repository.findById(eventId)
+                    .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+            this.listingRepository.deleteListing(eventId);
+            this.repository.delete(existing);
+            return existing;
+        });
+        this.searchIndex.remove(eventId);
+        this.filterIndex.remove(eventId, event.getDate());
+        this.cache.evictDetails(eventId);
+        this.cache.evictUpcomingPages();
+    }
+
+    public List<EventResponseDTO> searchEvents(String title, int page, int size){
+        String query = (title != null) ? title : "";
 
+        return this.singleFlight.run("event-search",
+                new SearchKey(this.cache.listingsVersion().counter(), query, page, size),
+                () -> findEventsInOrder(this.searchIndex.search(query, page, size)));
     }
 
-    public List<EventResponseDTO> searchEvents(String title){
-        title = (title != null) ? title : "";
+    public List<EventResponseDTO> getFilteredEvents(int page, int size, LocationFilter location, Date startDate, Date endDate){
+        Date start = (startDate != null) ? startDate : new Date(0);
+        Date end = (endDate != null) ? endDate : new Date();
 
-        List<EventAddressProjection> eventsList = this.repository.findEventsByTitle(title);
-        return eventsList.stream().map(event -> new EventResponseDTO(
-                        event.getId(),
-                        event.getTitle(),
-                        event.getDescription(),
-                        event.getDate(),
-                        event.getCity() != null ? event.getCity() : "",
-                        event.getUf() != null ? event.getUf() : "",
-                        event.getRemote(),
-                        event.getEventUrl(),
-                        event.getImgUrl())
-                )
-                .toList();
+        return this.singleFlight.run("event-filter",
+                new FilterKey(this.cache.listingsVersion().counter(), location, start, end, page, size),
+                () -> loadFilteredEvents(page, size, location, start, end));
     }
 
-    public List<EventResponseDTO> getFilteredEvents(int page, int size, String city, String uf, Date startDate, Date endDate){
-        city = (city != null) ? city : "";
-        uf = (uf != null) ? uf : "";
-        startDate = (startDate != null) ? startDate : new Date(0);
-        endDate = (endDate != null) ? endDate : new Date();
-
-        Pageable pageable = PageRequest.of(page, size);
-
-        Page<EventAddressProjection> eventsPage = this.repository.findFilteredEvents(city, uf, startDate, endDate, pageable);
-        return eventsPage.map(event -> new EventResponseDTO(
-                        event.getId(),
-                        event.getTitle(),
-                        event.getDescription(),
-                        event.getDate(),
-                        event.getCity() != null ? event.getCity() : "",
-                        event.getUf() != null ? event.getUf() : "",
-                        event.getRemote(),
-                        event.getEventUrl(),
-                        event.getImgUrl())
-                )
-                .stream().toList();
+    public List<EventResponseDTO> getFilteredEvents(EventCursor cursor, int size, LocationFilter location, Date startDate, Date endDate){
+        Date start = (startDate != null) ? startDate : new Date(0);
+        Date end = (endDate != null) ? endDate : new Date();
+
+        return this.singleFlight.run("event-filter",
+                new FilterKey(this.cache.listingsVersion().counter(), location, start, end, cursor, size),
+                () -> loadFilteredEvents(cursor, size, location, start, end));
     }
 
-    private String uploadImg(MultipartFile multipartFile) {
-        String filename = UUID.randomUUID() + "-" + multipartFile.getOriginalFilename();
-
-        try {
-            PutObjectRequest putOb = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(filename)
-                    .build();
-            s3Client.putObject(putOb, RequestBody.fromByteBuffer(ByteBuffer.wrap(multipartFile.getBytes())));
-            GetUrlRequest request = GetUrlRequest.builder()
-                    .bucket(bucketName)
-                    .key(filename)
-                    .build();
-            return s3Client.utilities().getUrl(request).toString();
-        } catch (Exception e) {
-            log.error("erro ao subir arquivo: {}", e.getMessage());
-            return "";
+    private List<EventResponseDTO> loadFilteredEvents(int page, int size, LocationFilter location, Date startDate, Date endDate) {
+        if (this.filterIndex.covers(startDate)) {
+            return findEventsInOrder(this.filterIndex.filter(location, startDate, endDate, page, size));
         }
+
+        return this.filterRepository.findFilteredEvents(location, startDate, endDate, page, size)
+                .stream().map(EventService::toEventResponseDTO).toList();
     }
 
+    private List<EventResponseDTO> loadFilteredEvents(EventCursor cursor, int size, LocationFilter location, Date startDate, Date endDate) {
+        if (this.filterIndex.covers(startDate)) {
+            return findEventsInOrder(this.filterIndex.filterAfter(location, startDate, endDate, cursor, size));
+        }
+
+        return this.filterRepository.findFilteredEventsAfter(location, startDate, endDate, cursor, size)
+                .stream().map(EventService::toEventResponseDTO).toList();
+    }
+
+    /**
+     * Loads the events of a page found by an in-memory index, keeping the order of the index.
+     * Events deleted since the index was updated are left out.
+     */
+    private List<EventResponseDTO> findEventsInOrder(List<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, EventAddressProjection> eventsById = this.repository.findEventsByIds(eventIds).stream()
+                .collect(Collectors.toMap(EventAddressProjection::getId, Function.identity(), (first, second) -> first));
+        return eventIds.stream()
+                .map(eventsById::get)
+                .filter(Objects::nonNull)
+                .map(EventService::toEventResponseDTO)
+                .toList();
+    }
+
+    static EventResponseDTO toEventResponseDTO(EventAddressProjection event) {
+        return new EventResponseDTO(
+                event.getId(),
+                event.getTitle(),
+                event.getDescription(),
+                event.getDate(),
+                event.getCity() != null ? event.getCity() : "",
+                event.getUf() != null ? event.getUf() : "",
+                event.getRemote(),
+                event.getEventUrl(),
+                event.getImgUrl());
+    }
+
+    /**
+     * Keys of the {@link SingleFlight} reads, with the version of the cached data they derive from.
+     */
+    private record DetailsKey(long version, UUID eventId) {
+    }
+
+    private record SearchKey(long version, String title, int page, int size) {
+    }
+
+    private record FilterKey(long version, LocationFilter location, Date startDate, Date endDate, Object position, int size) {
+    }
 }
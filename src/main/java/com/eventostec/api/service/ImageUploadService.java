@@ -0,0 +1,230 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.exceptions.AdmissionRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Streams event images from the multipart request to S3 without loading them onto the heap.
+ * <p>
+ * Files up to one part are sent with a single streaming PUT. Larger files go through a multipart
+ * upload, one part at a time, using buffers borrowed from a fixed pool, so the memory used by
+ * uploads never exceeds {@code buffer-count * part-size-bytes} however many are in flight.
+ * Interrupting the uploading thread cancels the upload and aborts it on S3.
+ */
+@Service
+@Slf4j
+public class ImageUploadService {
+
+    /**
+     * S3 rejects multipart uploads whose parts (except the last) are smaller than this.
+     */
+    private static final int MIN_PART_SIZE_BYTES = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final long maxSizeBytes;
+    private final Set<String> allowedContentTypes;
+    private final int partSizeBytes;
+    private final long bufferWaitMs;
+
+    private final Semaphore bufferPermits;
+    private final Queue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+
+    public ImageUploadService(S3Client s3Client,
+                              @Value("${aws.bucket.name}") String bucketName,
+                              @Value("${aws.upload.max-size-bytes:10485760}") long maxSizeBytes,
+                              @Value("${aws.upload.allowed-content-types:image/jpeg,image/png,image/webp,image/gif}") String[] allowedContentTypes,
+                              @Value("${aws.upload.part-size-bytes:5242880}") int partSizeBytes,
+                              @Value("${aws.upload.buffer-count:8}") int bufferCount,
+                              @Value("${aws.upload.buffer-wait-ms:30000}") long bufferWaitMs) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.maxSizeBytes = maxSizeBytes;
+        this.allowedContentTypes = Arrays.stream(allowedContentTypes).map(String::trim).collect(Collectors.toSet());
+        this.partSizeBytes = Math.max(partSizeBytes, MIN_PART_SIZE_BYTES);
+        this.bufferWaitMs = bufferWaitMs;
+        this.bufferPermits = new Semaphore(bufferCount);
+    }
+
+    /**
+     * Returns the S3 key and public URL of the uploaded image, or empty when S3 could not store it.
+     *
+     * @throws IllegalArgumentException if the file is too large or is not an accepted image type,
+     *                                  checked before any of its bytes are read
+     * @throws AdmissionRejectedException with 503 if no buffer frees up within {@code buffer-wait-ms},
+     *                                    so the event is not created without its image
+     */
+    public Optional<UploadedImage> upload(MultipartFile multipartFile) {
+        validate(multipartFile);
+
+        String filename = UUID.randomUUID() + "-" + multipartFile.getOriginalFilename();
+
+        try {
+            if (multipartFile.getSize() <= partSizeBytes) {
+                putObject(multipartFile, filename);
+            } else {
+                multipartUpload(multipartFile, filename);
+            }
+            return Optional.of(new UploadedImage(filename, urlOf(filename)));
+        } catch (AdmissionRejectedException e) {
+            log.warn("nenhum buffer livre para enviar o arquivo {}", filename);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("envio do arquivo {} cancelado", filename);
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("erro ao subir arquivo: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a small, already encoded object (such as an image variant) and returns its public URL.
+     */
+    public String store(String key, byte[] content, String contentType) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build(),
+                RequestBody.fromBytes(content));
+        return urlOf(key);
+    }
+
+    public InputStream open(String key) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    private String urlOf(String key) {
+        GetUrlRequest request = GetUrlRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+        return s3Client.utilities().getUrl(request).toString();
+    }
+
+    private void validate(MultipartFile multipartFile) {
+        if (multipartFile.getSize() > maxSizeBytes) {
+            throw new IllegalArgumentException("Image exceeds the maximum size of " + maxSizeBytes + " bytes");
+        }
+        String contentType = multipartFile.getContentType();
+        if (contentType == null || !allowedContentTypes.contains(contentType)) {
+            throw new IllegalArgumentException("Unsupported image type: " + contentType);
+        }
+    }
+
+    private void putObject(MultipartFile multipartFile, String filename) throws IOException {
+        PutObjectRequest putOb = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(filename)
+                .contentType(multipartFile.getContentType())
+                .build();
+        try (InputStream input = multipartFile.getInputStream()) {
+            s3Client.putObject(putOb, RequestBody.fromInputStream(input, multipartFile.getSize()));
+        }
+    }
+
+    private void multipartUpload(MultipartFile multipartFile, String filename) throws IOException, InterruptedException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(filename)
+                        .contentType(multipartFile.getContentType())
+                        .build())
+                .uploadId();
+
+        try {
+            List<CompletedPart> parts = uploadParts(multipartFile, filename, uploadId);
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(filename)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            abortMultipartUpload(filename, uploadId);
+            throw e;
+        }
+    }
+
+    private void abortMultipartUpload(String filename, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(filename)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("erro ao cancelar envio do arquivo {}: {}", filename, e.getMessage());
+        }
+    }
+
+    private List<CompletedPart> uploadParts(MultipartFile multipartFile, String filename, String uploadId) throws IOException, InterruptedException {
+        List<CompletedPart> parts = new ArrayList<>();
+        byte[] buffer = acquireBuffer();
+        try (InputStream input = multipartFile.getInputStream()) {
+            int partNumber = 1;
+            int read;
+            while ((read = input.readNBytes(buffer, 0, buffer.length)) > 0) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Upload cancelled");
+                }
+                UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(filename)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) read)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read));
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+                partNumber++;
+            }
+        } finally {
+            releaseBuffer(buffer);
+        }
+        return parts;
+    }
+
+    private byte[] acquireBuffer() throws InterruptedException {
+        if (!bufferPermits.tryAcquire(bufferWaitMs, TimeUnit.MILLISECONDS)) {
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, Math.max(1, TimeUnit.MILLISECONDS.toSeconds(bufferWaitMs)),
+                    "No upload buffer available");
+        }
+        byte[] buffer = freeBuffers.poll();
+        return buffer != null ? buffer : new byte[partSizeBytes];
+    }
+
+    private void releaseBuffer(byte[] buffer) {
+        freeBuffers.offer(buffer);
+        bufferPermits.release();
+    }
+
+    public record UploadedImage(String key, String url) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.repositories.EventListingRepository;
+import com.eventostec.api.repositories.EventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the resized variants of event images in the background.
+ * <p>
+ * After an upload, the original is decoded once and re-encoded as a list-sized and a
+ * detail-sized JPEG. Their URLs are stored on the event, and listings and details then serve the
+ * variant instead of the full-size original. Work runs on a bounded pool, and when the queue is
+ * full the event simply keeps pointing at the original.
+ */
+@Service
+@Slf4j
+public class ImageVariantService {
+
+    private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+    private static final long MAX_SOURCE_PIXELS = 25_000_000L;
+    private static final long MAX_DECODED_PIXELS = 4_000_000L;
+
+    private final ImageUploadService imageUploadService;
+    private final EventRepository repository;
+    private final EventListingRepository listingRepository;
+    private final TransactionOperations transactionOperations;
+    private final EventCache cache;
+    private final int listWidth;
+    private final int detailWidth;
+    private final float quality;
+    private final ThreadPoolExecutor executor;
+
+    public ImageVariantService(ImageUploadService imageUploadService,
+                               EventRepository repository,
+                               EventListingRepository listingRepository,
+                               TransactionOperations transactionOperations,
+                               EventCache cache,
+                               @Value("${image.variants.list-width:400}") int listWidth,
+                               @Value("${image.variants.detail-width:1200}") int detailWidth,
+                               @Value("${image.variants.quality:0.8}") float quality,
+                               @Value("${image.variants.workers:2}") int workers,
+                               @Value("${image.variants.queue-capacity:100}") int queueCapacity) {
+        this.imageUploadService = imageUploadService;
+        this.repository = repository;
+        this.listingRepository = listingRepository;
+        this.transactionOperations = transactionOperations;
+        this.cache = cache;
+        this.listWidth = listWidth;
+        this.detailWidth = detailWidth;
+        this.quality = quality;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public void generateVariants(UUID eventId, String originalKey) {
+        try {
+            executor.execute(() -> createVariants(eventId, originalKey));
+        } catch (RejectedExecutionException e) {
+            log.warn("fila de imagens cheia, evento {} vai usar a imagem original", eventId);
+        }
+    }
+
+    void createVariants(UUID eventId, String originalKey) {
+        try {
+            BufferedImage original;
+            try (InputStream input = imageUploadService.open(originalKey)) {
+                original = decode(input);
+            }
+
+            String listUrl = imageUploadService.store(originalKey + "-list.jpg", encode(resize(original, listWidth)), VARIANT_CONTENT_TYPE);
+            String detailUrl = imageUploadService.store(originalKey + "-detail.jpg", encode(resize(original, detailWidth)), VARIANT_CONTENT_TYPE);
+
+            transactionOperations.executeWithoutResult(status -> {
+                repository.updateImageVariants(eventId, listUrl, detailUrl);
+                listingRepository.updateImgUrl(eventId, listUrl);
+            });
+            cache.evictDetails(eventId);
+            cache.evictUpcomingPages();
+        } catch (Exception e) {
+            log.error("erro ao gerar variantes da imagem do evento {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the dimensions first so oversized images are rejected before their pixels are decoded.
+     * The reader then keeps only every n-th pixel of every n-th row, the largest step that still
+     * leaves the detail width, so a large original never sits in memory at full resolution.
+     */
+    private BufferedImage decode(InputStream input) throws IOException {
+        try (ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int width = reader.getWidth(0);
+                long pixels = (long) width * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image is too large to resize");
+                }
+                int step = Math.max(1, width / detailWidth);
+                while (pixels / ((long) step * step) > MAX_DECODED_PIXELS) {
+                    step++;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales the image down to the given width keeping its aspect ratio, never up. The result is
+     * always opaque RGB, with transparent areas filled in white, since JPEG has no alpha channel.
+     */
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
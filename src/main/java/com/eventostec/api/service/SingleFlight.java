@@ -0,0 +1,81 @@
+package com.eventostec.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one computation among concurrent identical reads. The first caller for a key runs it and
+ * callers arriving meanwhile wait for its result, or its exception, instead of running the same
+ * queries again. Nothing is kept once the computation ends, caching is left to {@link EventCache}.
+ * <p>
+ * Keys must hold everything the result depends on, including the {@link EventCache.Version}
+ * counter of the data, or a caller could get a result computed before a write it has already
+ * seen. Calls are counted in {@code singleflight.calls}, those with {@code outcome=shared} are the
+ * computations saved.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T run(String name, Object key, Supplier<T> computation) {
+        FlightKey flightKey = new FlightKey(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            count(name, "shared");
+            return (T) join(existing);
+        }
+
+        count(name, "executed");
+        try {
+            T result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void count(String name, String outcome) {
+        Counter.builder("singleflight.calls")
+                .description("Reads that ran a computation or shared one already in flight")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record FlightKey(String name, Object key) {
+    }
+}
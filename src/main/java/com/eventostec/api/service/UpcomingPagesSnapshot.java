@@ -0,0 +1,149 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.EventCursor;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The first pages of the upcoming listing, already serialized to JSON and gzipped, so that most
+ * listing requests cost neither a query nor a serialization.
+ * <p>
+ * The snapshot is rebuilt in the background after any write that evicts the upcoming pages from
+ * the {@link EventCache}, before its first event starts, and at least every ttl, since writes
+ * made by other instances are not seen. A snapshot that is out of date is never served, requests
+ * fall back to the regular listing until it has been rebuilt.
+ */
+@Component
+@Slf4j
+public class UpcomingPagesSnapshot {
+
+    private final EventService eventService;
+    private final EventCache eventCache;
+    private final boolean enabled;
+    private final int pages;
+    private final int pageSize;
+    private final long ttlMs;
+    private final long refreshIntervalMs;
+
+    /**
+     * Same configuration as the mapper of the MVC message converters, which {@code @EnableWebMvc}
+     * builds instead of using the Spring Boot one, so both write the same JSON.
+     */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private volatile Snapshot snapshot;
+
+    public UpcomingPagesSnapshot(EventService eventService,
+                                 EventCache eventCache,
+                                 @Value("${snapshot.upcoming-pages.enabled:true}") boolean enabled,
+                                 @Value("${snapshot.upcoming-pages.count:5}") int pages,
+                                 @Value("${snapshot.upcoming-pages.size:10}") int pageSize,
+                                 @Value("${snapshot.upcoming-pages.ttl-ms:30000}") long ttlMs,
+                                 @Value("${snapshot.upcoming-pages.refresh-interval-ms:1000}") long refreshIntervalMs) {
+        this.eventService = eventService;
+        this.eventCache = eventCache;
+        this.enabled = enabled;
+        this.pages = pages;
+        this.pageSize = pageSize;
+        this.ttlMs = ttlMs;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    /**
+     * Returns the page only when the snapshot was built at the given listings version and is still
+     * valid, callers read the version before calling so that it matches the page they serve.
+     */
+    public Optional<SerializedPage> getPage(int page, int size, EventCache.Version version) {
+        Snapshot current = snapshot;
+        if (current == null || size != pageSize || page < 0 || page >= current.pages().size()
+                || !current.version().equals(version) || current.validUntil() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(current.pages().get(page));
+    }
+
+    /**
+     * Rebuilds slightly ahead of the deadline so that the snapshot does not lapse between runs.
+     */
+    @Scheduled(fixedDelayString = "${snapshot.upcoming-pages.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        EventCache.Version version = eventCache.listingsVersion();
+        Snapshot current = snapshot;
+        if (current != null && current.version().equals(version)
+                && current.validUntil() > System.currentTimeMillis() + refreshIntervalMs) {
+            return;
+        }
+        try {
+            snapshot = build(version);
+        } catch (RuntimeException e) {
+            log.error("erro ao gerar o snapshot das primeiras páginas de eventos: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot build(EventCache.Version version) {
+        long builtAt = System.currentTimeMillis();
+        List<EventResponseDTO> events = version.load(() -> eventService.loadUpcomingEvents(pages * pageSize));
+
+        long validUntil = Math.min(builtAt + ttlMs, EventCache.firstEventStart(events));
+        List<SerializedPage> serialized = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            int from = Math.min(page * pageSize, events.size());
+            int to = Math.min(from + pageSize, events.size());
+            serialized.add(serialize(events.subList(from, to), validUntil));
+        }
+        log.debug("snapshot das primeiras páginas de eventos gerado com {} eventos", events.size());
+        return new Snapshot(version, validUntil, List.copyOf(serialized));
+    }
+
+    private SerializedPage serialize(List<EventResponseDTO> events, long validUntil) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(events);
+            String nextCursor = events.size() == pageSize ? EventCursor.of(events.get(events.size() - 1)).encode() : null;
+            return new SerializedPage(json, gzip(json), nextCursor, validUntil);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compressed once per rebuild, so the slowest level is worth it.
+     */
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        }
+        return compressed.toByteArray();
+    }
+
+    private record Snapshot(EventCache.Version version, long validUntil, List<SerializedPage> pages) {
+    }
+
+    /**
+     * A page as UTF-8 JSON and gzipped, with the cursor to the next page when it is full and the
+     * time until which the whole snapshot is valid.
+     */
+    public record SerializedPage(byte[] json, byte[] gzip, String nextCursor, long validUntil) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.eventostec.api.utils;
 
+import com.eventostec.api.exceptions.AdmissionRejectedException;
+import com.eventostec.api.exceptions.CouponRedemptionException;
 import com.eventostec.api.exceptions.config.ProblemDetails;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.convert.ConversionFailedException;
@@ -7,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.Optional;
@@ -28,6 +31,9 @@ public final class ExceptionUtil {
             case "DataIntegrityViolationException" -> handleDataIntegrityViolation(request);
             case "MethodArgumentNotValidException" -> handleMethodArgumentNotValid((MethodArgumentNotValidException) ex, request);
             case "ConversionFailedException" -> handleConversionFailed((ConversionFailedException) ex, request);
+            case "HandlerMethodValidationException" -> handleHandlerMethodValidation((HandlerMethodValidationException) ex, request);
+            case "CouponRedemptionException" -> handleCouponRedemption((CouponRedemptionException) ex, request);
+            case "AdmissionRejectedException" -> handleAdmissionRejected((AdmissionRejectedException) ex, request);
             default -> new ProblemDetails(
                     "Erro não especificado",
                     HttpStatus.BAD_REQUEST.value(),
@@ -107,4 +113,30 @@ public final class ExceptionUtil {
 
         return new ProblemDetails(title, HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), detail, request.getRequestURI());
     }
+
+    private static ProblemDetails handleHandlerMethodValidation(HandlerMethodValidationException ex, HttpServletRequest request) {
+        String title = "Validação de campo violada";
+        String detail = ex.getAllValidationResults().stream()
+                .findFirst()
+                .map(result -> String.format("A validação do campo '%s' falhou: %s.",
+                        result.getMethodParameter().getParameterName(),
+                        result.getResolvableErrors().get(0).getDefaultMessage()))
+                .orElse("A validação falhou em um campo não identificado.");
+
+        return new ProblemDetails(title, HttpStatus.BAD_REQUEST.value(), HttpStatus.BAD_REQUEST.getReasonPhrase(), detail, request.getRequestURI());
+    }
+
+    private static ProblemDetails handleCouponRedemption(CouponRedemptionException ex, HttpServletRequest request) {
+        CouponRedemptionException.Reason reason = ex.getReason();
+
+        return new ProblemDetails(reason.getTitle(), reason.getStatus().value(), reason.getStatus().getReasonPhrase(), reason.getDetail(), request.getRequestURI());
+    }
+
+    private static ProblemDetails handleAdmissionRejected(AdmissionRejectedException ex, HttpServletRequest request) {
+        HttpStatus status = ex.getStatus();
+        String title = (status == HttpStatus.TOO_MANY_REQUESTS) ? "Muitas requisições" : "Serviço sobrecarregado";
+        String detail = String.format("A requisição não pôde ser atendida agora, tente novamente em %d s.", ex.getRetryAfterSeconds());
+
+        return new ProblemDetails(title, status.value(), status.getReasonPhrase(), detail, request.getRequestURI());
+    }
 }
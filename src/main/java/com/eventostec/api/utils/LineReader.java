@@ -0,0 +1,67 @@
+package com.eventostec.api.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()}, ended by {@code \n}, {@code \r} or
+ * {@code \r\n}, but keeps at most {@code maxLength} characters of each. The rest of a longer line
+ * is read and dropped, so a single line never grows past the limit in memory.
+ */
+public final class LineReader {
+
+    private final Reader reader;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+    private boolean truncated;
+    private int pending = -2;
+
+    public LineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the next line without its terminator, cut to {@code maxLength} characters, or
+     * {@code null} at the end of the input.
+     */
+    public String readLine() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxLength) {
+                line.append((char) c);
+            } else {
+                truncated = true;
+            }
+            c = read();
+        }
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pending = next;
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Whether the last line returned by {@link #readLine()} was longer than {@code maxLength}.
+     */
+    public boolean truncated() {
+        return truncated;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,49 @@
+package com.eventostec.api.utils;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class TextUtil {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private TextUtil() {
+        throw new IllegalStateException("Cannot be instantiated");
+    }
+
+    /**
+     * Lower-cases the text, strips accents ("São Paulo" -> "sao paulo") and collapses
+     * everything that is not a letter or digit into single spaces.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String folded = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(folded).replaceAll(" ").trim();
+    }
+
+    /**
+     * Splits the normalized text into words and returns the distinct trigrams of each one,
+     * padded the same way pg_trgm does (two spaces before the word, one after).
+     */
+    public static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return grams;
+        }
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,49 @@
+package com.eventostec.api.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates version 7 UUIDs (RFC 9562): 48 bits of Unix time in milliseconds, a 12-bit counter and
+ * 62 random bits. Keys generated later sort after earlier ones, so inserts append to the right end
+ * of the primary key indexes instead of splitting pages all over them.
+ * <p>
+ * Time and counter are advanced together with a single atomic update, which keeps the ids of this
+ * JVM strictly increasing even within a millisecond or if the clock goes back; a counter that
+ * overflows borrows from the next millisecond. Ids of different nodes interleave by time and the
+ * random bits keep them apart.
+ */
+public final class TimeOrderedUuid {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedUuid() {
+        throw new IllegalStateException("Cannot be instantiated");
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long currentTimeMillis) {
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(currentTimeMillis << COUNTER_BITS, last + 1));
+        long mostSignificant = (timeAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | (timeAndCounter & ((1L << COUNTER_BITS) - 1));
+        long leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * The Unix time in milliseconds a version 7 UUID was generated at.
+     */
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,67 @@
+package db.migration;
+
+import com.eventostec.api.utils.TextUtil;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rewrites the normalized location, title and description columns backfilled in SQL by V12 and
+ * V15 with {@link TextUtil#normalize}, which every writer uses since. The translate() list of
+ * those migrations only covers the common Portuguese accents, so other characters were folded
+ * differently and the same city could fail to match depending on which path wrote the row.
+ * Only rows whose value changes are updated.
+ */
+public class V16__normalize_locations_with_text_util extends BaseJavaMigration {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        // The migration runs in a transaction, so Postgres honours the fetch size and streams the rows.
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+        normalizeAddresses(jdbcTemplate);
+        normalizeListings(jdbcTemplate);
+    }
+
+    private static void normalizeAddresses(JdbcTemplate jdbcTemplate) {
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, city, uf, city_normalized, uf_normalized FROM address", resultSet -> {
+            String city = TextUtil.normalize(resultSet.getString("city"));
+            String uf = TextUtil.normalize(resultSet.getString("uf"));
+            if (!city.equals(resultSet.getString("city_normalized")) || !uf.equals(resultSet.getString("uf_normalized"))) {
+                updates.add(new Object[]{city, uf, resultSet.getObject("id", UUID.class)});
+            }
+        });
+        jdbcTemplate.batchUpdate("UPDATE address SET city_normalized = ?, uf_normalized = ? WHERE id = ?", updates);
+    }
+
+    private static void normalizeListings(JdbcTemplate jdbcTemplate) {
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, city, uf, title, description, city_normalized, uf_normalized, title_normalized, description_normalized " +
+                "FROM event_listing", resultSet -> {
+            String rawCity = resultSet.getString("city");
+            String city = (rawCity != null) ? TextUtil.normalize(rawCity) : null;
+            String uf = (rawCity != null) ? TextUtil.normalize(resultSet.getString("uf")) : null;
+            String title = TextUtil.normalize(resultSet.getString("title"));
+            String description = TextUtil.normalize(resultSet.getString("description"));
+            if (!equal(city, resultSet.getString("city_normalized")) || !equal(uf, resultSet.getString("uf_normalized"))
+                    || !title.equals(resultSet.getString("title_normalized"))
+                    || !description.equals(resultSet.getString("description_normalized"))) {
+                updates.add(new Object[]{city, uf, title, description, resultSet.getObject("id", UUID.class)});
+            }
+        });
+        jdbcTemplate.batchUpdate("UPDATE event_listing SET city_normalized = ?, uf_normalized = ?, title_normalized = ?, " +
+                "description_normalized = ? WHERE id = ?", updates);
+    }
+
+    private static boolean equal(String first, String second) {
+        return (first == null) ? second == null : first.equals(second);
+    }
+}
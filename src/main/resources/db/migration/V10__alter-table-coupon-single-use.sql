@@ -0,0 +1,3 @@
+ALTER TABLE coupon ADD COLUMN single_use BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE UNIQUE INDEX idx_coupon_event_id_code_single_use ON coupon (event_id, code) WHERE single_use;
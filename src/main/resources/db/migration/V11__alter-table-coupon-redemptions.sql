@@ -0,0 +1,6 @@
+ALTER TABLE coupon ADD COLUMN max_redemptions INTEGER;
+ALTER TABLE coupon ADD COLUMN redemptions INTEGER NOT NULL DEFAULT 0;
+
+UPDATE coupon SET max_redemptions = 1 WHERE single_use;
+
+CREATE INDEX idx_coupon_event_id_code ON coupon (event_id, code);
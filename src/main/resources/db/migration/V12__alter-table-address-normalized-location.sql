@@ -0,0 +1,25 @@
+ALTER TABLE address ADD COLUMN city_normalized VARCHAR(100);
+ALTER TABLE address ADD COLUMN uf_normalized VARCHAR(100);
+ALTER TABLE address ADD COLUMN event_date TIMESTAMP;
+
+-- Same folding as TextUtil.normalize: strip accents, lower-case, collapse anything that is not a letter or digit.
+UPDATE address a
+SET city_normalized = btrim(regexp_replace(lower(translate(a.city,
+        'áàâãäéèêëíìîïóòôõöúùûüçñÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ',
+        'aaaaaeeeeiiiiooooouuuucnAAAAAEEEEIIIIOOOOOUUUUCN')), '[^a-z0-9]+', ' ', 'g')),
+    uf_normalized = btrim(regexp_replace(lower(translate(a.uf,
+        'áàâãäéèêëíìîïóòôõöúùûüçñÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ',
+        'aaaaaeeeeiiiiooooouuuucnAAAAAEEEEIIIIOOOOOUUUUCN')), '[^a-z0-9]+', ' ', 'g')),
+    event_date = e.date
+FROM event e
+WHERE e.id = a.event_id;
+
+ALTER TABLE address ALTER COLUMN city_normalized SET NOT NULL;
+ALTER TABLE address ALTER COLUMN uf_normalized SET NOT NULL;
+
+-- varchar_pattern_ops lets city prefix matches (LIKE 'sao%') use the index whatever the database collation.
+CREATE INDEX idx_address_uf_city_date ON address (uf_normalized, city_normalized varchar_pattern_ops, event_date, event_id);
+CREATE INDEX idx_address_city_date ON address (city_normalized varchar_pattern_ops, event_date, event_id);
+
+-- The city implies the UF, without this the planner multiplies both selectivities and picks bitmap scans over the ordered index.
+CREATE STATISTICS stx_address_uf_city (dependencies) ON uf_normalized, city_normalized FROM address;
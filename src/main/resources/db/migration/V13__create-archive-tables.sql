@@ -0,0 +1,43 @@
+-- Past events, with their addresses and coupons, and expired coupons are moved here by EventArchiveService.
+-- No foreign keys: rows only arrive in batches from the live tables and are never updated.
+CREATE TABLE event_archive (
+    id UUID PRIMARY KEY,
+    title VARCHAR(100) NOT NULL,
+    description VARCHAR(400) NOT NULL,
+    img_url VARCHAR(250) NOT NULL,
+    img_list_url VARCHAR(250),
+    img_detail_url VARCHAR(250),
+    event_url VARCHAR(250) NOT NULL,
+    date TIMESTAMP NOT NULL,
+    remote BOOLEAN NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE address_archive (
+    id UUID PRIMARY KEY,
+    city VARCHAR(100) NOT NULL,
+    uf VARCHAR(100) NOT NULL,
+    city_normalized VARCHAR(100) NOT NULL,
+    uf_normalized VARCHAR(100) NOT NULL,
+    event_date TIMESTAMP,
+    event_id UUID,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE coupon_archive (
+    id UUID PRIMARY KEY,
+    code VARCHAR(100) NOT NULL,
+    discount INTEGER NOT NULL,
+    valid TIMESTAMP NOT NULL,
+    single_use BOOLEAN NOT NULL,
+    max_redemptions INTEGER,
+    redemptions INTEGER NOT NULL,
+    event_id UUID,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_address_archive_event_id ON address_archive (event_id);
+CREATE INDEX idx_coupon_archive_event_id_valid ON coupon_archive (event_id, valid);
+
+-- Lets the archival find expired coupons without scanning the whole table.
+CREATE INDEX idx_coupon_valid ON coupon (valid);
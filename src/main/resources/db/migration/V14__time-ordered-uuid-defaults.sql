@@ -0,0 +1,18 @@
+-- UUIDv7 (RFC 9562): the first 48 bits are the Unix time in milliseconds, the rest stays random,
+-- so rows inserted without an id also land at the right end of the primary key indexes.
+-- Same layout as TimeOrderedUuid, without its per-millisecond counter.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE event ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE address ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE coupon ALTER COLUMN id SET DEFAULT uuid_generate_v7();
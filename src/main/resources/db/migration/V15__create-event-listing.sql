@@ -0,0 +1,54 @@
+-- One row per event with the columns of the listings already joined, see EventListing.
+-- Written with the event and its address; removed with the event, also when it is archived.
+CREATE TABLE event_listing (
+    id UUID PRIMARY KEY,
+    title VARCHAR(100) NOT NULL,
+    description VARCHAR(400) NOT NULL,
+    date TIMESTAMP NOT NULL,
+    img_url VARCHAR(250) NOT NULL,
+    event_url VARCHAR(250) NOT NULL,
+    remote BOOLEAN NOT NULL,
+    city VARCHAR(100),
+    uf VARCHAR(100),
+    city_normalized VARCHAR(100),
+    uf_normalized VARCHAR(100),
+    title_normalized VARCHAR(100) NOT NULL,
+    description_normalized VARCHAR(400) NOT NULL,
+    FOREIGN KEY (id) REFERENCES event(id) ON DELETE CASCADE
+);
+
+-- Backfill with the same folding as TextUtil.normalize, as in V12. POST /api/event/listing/rebuild
+-- rewrites the rows with TextUtil itself.
+INSERT INTO event_listing (id, title, description, date, img_url, event_url, remote, city, uf,
+                           city_normalized, uf_normalized, title_normalized, description_normalized)
+SELECT DISTINCT ON (e.id)
+       e.id, e.title, e.description, e.date, COALESCE(e.img_list_url, e.img_url), e.event_url, e.remote, a.city, a.uf,
+       a.city_normalized, a.uf_normalized,
+       btrim(regexp_replace(lower(translate(e.title,
+           'áàâãäéèêëíìîïóòôõöúùûüçñÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ',
+           'aaaaaeeeeiiiiooooouuuucnAAAAAEEEEIIIIOOOOOUUUUCN')), '[^a-z0-9]+', ' ', 'g')),
+       btrim(regexp_replace(lower(translate(e.description,
+           'áàâãäéèêëíìîïóòôõöúùûüçñÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ',
+           'aaaaaeeeeiiiiooooouuuucnAAAAAEEEEIIIIOOOOOUUUUCN')), '[^a-z0-9]+', ' ', 'g'))
+FROM event e LEFT JOIN address a ON a.event_id = e.id
+ORDER BY e.id;
+
+-- Each index carries the columns of the page, so the listings are answered by index-only scans.
+CREATE INDEX idx_event_listing_date ON event_listing (date, id)
+    INCLUDE (title, description, img_url, event_url, remote, city, uf);
+-- varchar_pattern_ops lets city prefix matches (LIKE 'sao%') use the index whatever the database collation.
+CREATE INDEX idx_event_listing_uf_city_date ON event_listing (uf_normalized, city_normalized varchar_pattern_ops, date, id)
+    INCLUDE (title, description, img_url, event_url, remote, city, uf)
+    WHERE city_normalized IS NOT NULL;
+CREATE INDEX idx_event_listing_city_date ON event_listing (city_normalized varchar_pattern_ops, date, id)
+    INCLUDE (title, description, img_url, event_url, remote, city, uf)
+    WHERE city_normalized IS NOT NULL;
+
+CREATE STATISTICS stx_event_listing_uf_city (dependencies) ON uf_normalized, city_normalized FROM event_listing;
+
+-- The filter no longer reads the address table.
+DROP STATISTICS stx_address_uf_city;
+DROP INDEX idx_address_uf_city_date;
+DROP INDEX idx_address_city_date;
+
+ANALYZE event_listing;
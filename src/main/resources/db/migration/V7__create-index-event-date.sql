@@ -0,0 +1,2 @@
+CREATE INDEX idx_event_date_id ON event (date, id);
+CREATE INDEX idx_address_event_id ON address (event_id);
\ No newline at end of file
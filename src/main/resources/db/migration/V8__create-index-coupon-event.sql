@@ -0,0 +1 @@
+CREATE INDEX idx_coupon_event_id_valid ON coupon (event_id, valid);
\ No newline at end of file
@@ -0,0 +1,2 @@
+ALTER TABLE event ADD COLUMN img_list_url VARCHAR(250);
+ALTER TABLE event ADD COLUMN img_detail_url VARCHAR(250);
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.eventostec.api.config;
+
+import com.eventostec.api.exceptions.AdmissionRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoadShedder loadShedder;
+    private AtomicInteger served;
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicLong();
+        loadShedder = new LoadShedder(meterRegistry, 200, 1_000, 5_000, now::get);
+        served = new AtomicInteger();
+    }
+
+    @Test
+    void test_shouldRejectAboveRateWithRetryAfter() throws Exception {
+        AdmissionControlFilter filter = filter(AdmissionControlFilter.Endpoint.of("search", "/api/event/search", 10, 1, 2));
+
+        assertEquals(200, get(filter, "/api/event/search").getStatus());
+        assertEquals(200, get(filter, "/api/event/search").getStatus());
+        MockHttpServletResponse rejected = get(filter, "/api/event/search");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getContentAsString().contains("\"code\":429"));
+        assertEquals(2, served.get());
+        assertEquals(1, meterRegistry.get("admission.rejected").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void test_shouldRejectAboveConcurrencyWithoutWaiting() throws Exception {
+        Semaphore permits = new Semaphore(1);
+        AdmissionControlFilter filter = filter(new AdmissionControlFilter.Endpoint("filter", "/api/event/filter", permits,
+                new TokenBucket(1_000, 1_000), true, false));
+        permits.acquire();
+
+        MockHttpServletResponse rejected = get(filter, "/api/event/filter");
+        permits.release();
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, get(filter, "/api/event/filter").getStatus());
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void test_shouldShedLimitedEndpointsWhenPoolWaitIsHigh() throws Exception {
+        AdmissionControlFilter filter = filter(AdmissionControlFilter.Endpoint.of("search", "/api/event/search", 10, 1_000, 1_000));
+        Timer poolWait = meterRegistry.timer("hikaricp.connections.acquire", "pool", "HikariPool-1");
+        loadShedder.sample();
+
+        poolWait.record(Duration.ofMillis(500));
+        loadShedder.sample();
+
+        assertTrue(loadShedder.overloaded());
+        assertEquals(503, get(filter, "/api/event/search").getStatus());
+        assertEquals(200, get(filter, "/api/event/7c9e6679-7425-40de-944b-e07fc1f90ae7").getStatus());
+
+        poolWait.record(Duration.ofMillis(1));
+        now.addAndGet(5_000);
+        loadShedder.sample();
+
+        assertFalse(loadShedder.overloaded());
+        assertEquals(200, get(filter, "/api/event/search").getStatus());
+    }
+
+    @Test
+    void test_shouldKeepSheddingForTheMinimumTimeWithoutLatencySamples() {
+        loadShedder.recordLatency(TimeUnit.SECONDS.toNanos(2));
+        loadShedder.sample();
+        assertTrue(loadShedder.overloaded());
+
+        now.addAndGet(4_999);
+        loadShedder.sample();
+        assertTrue(loadShedder.overloaded());
+
+        now.addAndGet(1);
+        loadShedder.sample();
+        assertFalse(loadShedder.overloaded());
+    }
+
+    @Test
+    void test_shouldKeepSheddingUntilPoolWaitIsWellUnderTheLimit() {
+        Timer poolWait = meterRegistry.timer("hikaricp.connections.acquire", "pool", "HikariPool-1");
+        loadShedder.sample();
+        poolWait.record(Duration.ofMillis(500));
+        loadShedder.sample();
+
+        now.addAndGet(10_000);
+        poolWait.record(Duration.ofMillis(150));
+        loadShedder.sample();
+        assertTrue(loadShedder.overloaded());
+
+        poolWait.record(Duration.ofMillis(50));
+        loadShedder.sample();
+        assertFalse(loadShedder.overloaded());
+    }
+
+    @Test
+    void test_shouldLimitDeferredEndpointOnlyWhenItLoads() throws Exception {
+        AdmissionControlFilter filter = filter(AdmissionControlFilter.Endpoint.whenLoading("listing", "/api/event", 10, 1, 1));
+
+        assertEquals(200, get(filter, "/api/event").getStatus());
+        assertEquals(200, get(filter, "/api/event").getStatus());
+        assertEquals(2, served.get());
+
+        MockHttpServletResponse loaded = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/event"), loaded,
+                (request, response) -> AdmissionControlFilter.admit((HttpServletRequest) request));
+        assertThrows(AdmissionRejectedException.class, () -> filter.doFilter(new MockHttpServletRequest("GET", "/api/event"),
+                new MockHttpServletResponse(), (request, response) -> AdmissionControlFilter.admit((HttpServletRequest) request)));
+        assertEquals(1, meterRegistry.get("admission.rejected").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void test_shouldRefillTokensOverTime() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 1, now::get);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, bucket.tryAcquire());
+    }
+
+    private AdmissionControlFilter filter(AdmissionControlFilter.Endpoint endpoint) {
+        return new AdmissionControlFilter(List.of(endpoint), loadShedder, new ObjectMapper(), meterRegistry, 1_000);
+    }
+
+    private MockHttpServletResponse get(AdmissionControlFilter filter, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, servletResponse) -> served.incrementAndGet();
+        filter.doFilter(new MockHttpServletRequest("GET", path), response, chain);
+        return response;
+    }
+}
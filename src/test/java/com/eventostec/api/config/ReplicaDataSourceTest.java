@@ -0,0 +1,145 @@
+package com.eventostec.api.config;
+
+import com.eventostec.api.service.EventCache;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory databases stand in for the primary and a replica, each knowing its own name.
+ */
+class ReplicaDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag_ms FROM replication";
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaDataSource replicaDataSource;
+    private LazyConnectionDataSourceProxy dataSource;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        replicaDataSource = new ReplicaDataSource(primary, List.of(replica), LAG_QUERY, 1_000);
+        dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+    }
+
+    @Test
+    void test_shouldReadFromReplicaOnceChecked() throws SQLException {
+        assertEquals("primary", node(true));
+
+        replicaDataSource.checkReplicas();
+
+        assertEquals("replica", node(true));
+        assertEquals("primary", node(false));
+    }
+
+    @Test
+    void test_shouldReadFromPrimaryWhenReplicaLags() throws SQLException {
+        setLag(5_000);
+
+        replicaDataSource.checkReplicas();
+
+        assertEquals("primary", node(true));
+    }
+
+    @Test
+    void test_shouldReadFromPrimaryWhenReplicaIsDown() throws SQLException {
+        replicaDataSource = new ReplicaDataSource(primary, List.of(new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE")),
+                LAG_QUERY, 1_000);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+
+        replicaDataSource.checkReplicas();
+
+        assertEquals("primary", node(true));
+    }
+
+    @Test
+    void test_shouldReadFromPrimaryAfterWrite() throws Exception {
+        replicaDataSource.checkReplicas();
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(5_000);
+        AtomicReference<String> readFrom = new AtomicReference<>();
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/event"), writeResponse,
+                (request, response) -> readFrom.set(nodeUnchecked()));
+        assertEquals("primary", readFrom.get());
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/event");
+        read.setCookies(cookie);
+        filter.doFilter(read, new MockHttpServletResponse(), (request, response) -> readFrom.set(nodeUnchecked()));
+        assertEquals("primary", readFrom.get());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/event"), new MockHttpServletResponse(),
+                (request, response) -> readFrom.set(nodeUnchecked()));
+        assertEquals("replica", readFrom.get());
+    }
+
+    @Test
+    void test_shouldLoadVersionedDataFromPrimaryRightAfterWrite() {
+        replicaDataSource.checkReplicas();
+        EventCache cache = new EventCache(100, 60_000, 2, 100, 60_000, 5_000);
+
+        cache.evictUpcomingPages();
+
+        assertEquals("primary", cache.listingsVersion().load(this::nodeUnchecked));
+        assertEquals("replica", nodeUnchecked());
+
+        EventCache settled = new EventCache(100, 60_000, 2, 100, 60_000, 0);
+        assertEquals("replica", settled.listingsVersion().load(this::nodeUnchecked));
+    }
+
+    private String node(boolean readOnly) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery("SELECT name FROM node")) {
+                result.next();
+                return result.getString(1);
+            }
+        }
+    }
+
+    private String nodeUnchecked() {
+        try {
+            return node(true);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void setLag(long lagMs) {
+        new JdbcTemplate(replica).update("UPDATE replication SET lag_ms = ?", lagMs);
+    }
+
+    private static DataSource database(String name) {
+        DataSource database = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replication (lag_ms BIGINT)");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.execute("DELETE FROM replication");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        jdbcTemplate.update("INSERT INTO replication VALUES (0)");
+        return database;
+    }
+}
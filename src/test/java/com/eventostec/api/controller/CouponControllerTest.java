@@ -1,7 +1,12 @@
 package com.eventostec.api.controller;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
+import com.eventostec.api.domain.coupon.CouponRedeemRequestDTO;
+import com.eventostec.api.domain.coupon.CouponRedeemResponseDTO;
+import com.eventostec.api.service.CouponRedemptionService;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
+import com.eventostec.api.exceptions.CouponRedemptionException;
 import com.eventostec.api.service.CouponService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,12 +15,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CouponController.class)
@@ -27,13 +41,16 @@ class CouponControllerTest {
     @MockBean
     private CouponService couponService;
 
+    @MockBean
+    private CouponRedemptionService couponRedemptionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Test
     void test_shouldReturnOk() throws Exception {
         UUID eventId = UUID.randomUUID();
-        CouponRequestDTO requestDTO = new CouponRequestDTO("CODE123", 10, new Date().getTime());
+        CouponRequestDTO requestDTO = new CouponRequestDTO("CODE123", 10, new Date().getTime(), null);
         Coupon responseCoupon = new Coupon();
 
         when(couponService.addCouponToEvent(eventId, requestDTO)).thenReturn(responseCoupon);
@@ -43,4 +60,64 @@ class CouponControllerTest {
                         .content(objectMapper.writeValueAsString(requestDTO)))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void test_shouldStreamGeneratedCoupons() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        CouponBatchRequestDTO requestDTO = new CouponBatchRequestDTO(2, 10, new Date().getTime(), null, null);
+
+        when(couponService.generateCoupons(eq(eventId), any(CouponBatchRequestDTO.class))).thenReturn(List.of("ABCD2345", "WXYZ6789"));
+
+        MvcResult result = mockMvc.perform(post("/api/coupon/event/{eventId}/batch", eventId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("ABCD2345\nWXYZ6789\n"));
+    }
+
+    @Test
+    void test_shouldRejectBatchWithoutCount() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        CouponBatchRequestDTO requestDTO = new CouponBatchRequestDTO(null, 10, new Date().getTime(), null, null);
+
+        mockMvc.perform(post("/api/coupon/event/{eventId}/batch", eventId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(couponService);
+    }
+
+    @Test
+    void test_shouldRedeemCoupon() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        CouponRedeemRequestDTO requestDTO = new CouponRedeemRequestDTO(eventId, "CODE123");
+
+        when(couponRedemptionService.redeem(eventId, "CODE123")).thenReturn(new CouponRedeemResponseDTO("CODE123", 10, 4));
+
+        mockMvc.perform(post("/api/coupon/redeem")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.discount").value(10))
+                .andExpect(jsonPath("$.remainingRedemptions").value(4));
+    }
+
+    @Test
+    void test_shouldReturnConflictWhenCouponIsExhausted() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        CouponRedeemRequestDTO requestDTO = new CouponRedeemRequestDTO(eventId, "CODE123");
+
+        when(couponRedemptionService.redeem(eventId, "CODE123")).thenThrow(
+                new CouponRedemptionException(CouponRedemptionException.Reason.EXHAUSTED, "Coupon exhausted"));
+
+        mockMvc.perform(post("/api/coupon/redeem")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value(409));
+    }
 }
@@ -1,26 +1,49 @@
 package com.eventostec.api.controller;
 
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventCursor;
 import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventImportResultDTO;
 import com.eventostec.api.domain.event.EventRequestDTO;
 import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.service.EventArchiveService;
+import com.eventostec.api.service.EventCache;
+import com.eventostec.api.service.EventCountService;
+import com.eventostec.api.service.EventExportService;
+import com.eventostec.api.service.EventImportService;
+import com.eventostec.api.service.EventListingService;
 import com.eventostec.api.service.EventService;
+import com.eventostec.api.service.UpcomingPagesSnapshot;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,9 +56,36 @@ class EventControllerTest {
     @MockBean
     private EventService eventService;
 
+    @MockBean
+    private EventCountService eventCountService;
+
+    @MockBean
+    private EventImportService eventImportService;
+
+    @MockBean
+    private EventExportService eventExportService;
+
+    @MockBean
+    private EventArchiveService eventArchiveService;
+
+    @MockBean
+    private EventListingService eventListingService;
+
+    @MockBean
+    private EventCache eventCache;
+
+    @MockBean
+    private UpcomingPagesSnapshot upcomingPagesSnapshot;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        when(eventCache.detailsVersion()).thenReturn(new EventCache.Version("test", 1, 1_700_000_000_000L, 1_700_000_005_000L));
+        when(eventCache.listingsVersion()).thenReturn(new EventCache.Version("test", 1, 1_700_000_000_000L, 1_700_000_005_000L));
+    }
+
     @Test
     void test_createEventSuccess() throws Exception {
         EventRequestDTO requestDTO = new EventRequestDTO("Evento Teste", "Descrição do evento", new Date().getTime(), "Cidade Teste", "UF", true, "https://evento.com", null);
@@ -95,6 +145,72 @@ class EventControllerTest {
                 .andExpect(jsonPath("$[0]").exists());
     }
 
+    @Test
+    void test_getEventsWithTotalEstimate() throws Exception {
+        List<EventResponseDTO> responseList = getEventResponseDTO();
+
+        when(eventService.getUpcomingEvents(0, 10)).thenReturn(responseList);
+        when(eventCountService.estimateUpcomingEvents()).thenReturn(42L);
+
+        mockMvc.perform(get("/api/event")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(EventController.TOTAL_ESTIMATE_HEADER, "42"));
+    }
+
+    @Test
+    void test_getEventsWithoutTotalEstimate() throws Exception {
+        when(eventService.getUpcomingEvents(0, 10)).thenReturn(getEventResponseDTO());
+
+        mockMvc.perform(get("/api/event"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(EventController.TOTAL_ESTIMATE_HEADER));
+        verifyNoInteractions(eventCountService);
+    }
+
+    @Test
+    void test_getEventsFromSnapshot() throws Exception {
+        UpcomingPagesSnapshot.SerializedPage page = new UpcomingPagesSnapshot.SerializedPage(
+                "[{\"title\":\"Teste\"}]".getBytes(StandardCharsets.UTF_8), new byte[]{31, -117}, "cursor",
+                System.currentTimeMillis() + 60_000);
+        when(upcomingPagesSnapshot.getPage(0, 10, eventCache.listingsVersion())).thenReturn(Optional.of(page));
+
+        mockMvc.perform(get("/api/event"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(EventCursor.NEXT_CURSOR_HEADER, "cursor"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(jsonPath("$[0].title").value("Teste"));
+        mockMvc.perform(get("/api/event")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")));
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void test_getEventsWithCursor() throws Exception {
+        List<EventResponseDTO> responseList = getEventResponseDTO();
+        EventResponseDTO last = responseList.get(0);
+        EventCursor cursor = new EventCursor(new Date(1_700_000_000_000L), UUID.randomUUID());
+
+        when(eventService.getUpcomingEvents(cursor, 1)).thenReturn(responseList);
+
+        mockMvc.perform(get("/api/event")
+                        .param("size", "1")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(EventCursor.NEXT_CURSOR_HEADER, EventCursor.of(last).encode()))
+                .andExpect(jsonPath("$[0]").exists());
+    }
+
+    @Test
+    void test_getEventsWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/event")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void test_deleteEvent() throws Exception {
         UUID eventId = UUID.randomUUID();
@@ -108,13 +224,27 @@ class EventControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void test_rebuildListing() throws Exception {
+        when(eventListingService.startRebuild("testAdminKey")).thenReturn(true, false);
+
+        mockMvc.perform(post("/api/event/listing/rebuild")
+                        .content("testAdminKey")
+                        .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/api/event/listing/rebuild")
+                        .content("testAdminKey")
+                        .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void test_getFilteredEvents() throws Exception {
         List<EventResponseDTO> responseList = getEventResponseDTO();
         String startDate = "2024-10-24";
         String endDate = "2024-10-25";
 
-        when(eventService.getFilteredEvents(0, 10, "Brasilia", "DF",
+        when(eventService.getFilteredEvents(0, 10, new LocationFilter("brasilia", "df", LocationFilter.Match.CONTAINS),
                 new SimpleDateFormat("yyyy-MM-dd").parse(startDate),
                 new SimpleDateFormat("yyyy-MM-dd").parse(endDate))).thenReturn(responseList);
 
@@ -129,18 +259,184 @@ class EventControllerTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void test_getFilteredEventsByNormalizedCity() throws Exception {
+        List<EventResponseDTO> responseList = getEventResponseDTO();
+        String startDate = "2024-10-24";
+        String endDate = "2024-10-25";
+
+        when(eventService.getFilteredEvents(0, 10, new LocationFilter("sao paulo", "sp", LocationFilter.Match.EXACT),
+                new SimpleDateFormat("yyyy-MM-dd").parse(startDate),
+                new SimpleDateFormat("yyyy-MM-dd").parse(endDate))).thenReturn(responseList);
+
+        mockMvc.perform(get("/api/event/filter")
+                        .param("city", "SÃO Paulo")
+                        .param("uf", "sp")
+                        .param("match", "EXACT")
+                        .param("startDate", startDate)
+                        .param("endDate", endDate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").exists());
+    }
+
+    @Test
+    void test_getFilteredEventsByCityPrefix() throws Exception {
+        List<EventResponseDTO> responseList = getEventResponseDTO();
+        String startDate = "2024-10-24";
+        String endDate = "2024-10-25";
+
+        when(eventService.getFilteredEvents(0, 10, new LocationFilter("bras", "", LocationFilter.Match.PREFIX),
+                new SimpleDateFormat("yyyy-MM-dd").parse(startDate),
+                new SimpleDateFormat("yyyy-MM-dd").parse(endDate))).thenReturn(responseList);
+
+        mockMvc.perform(get("/api/event/filter")
+                        .param("city", "Brás")
+                        .param("uf", "")
+                        .param("match", "PREFIX")
+                        .param("startDate", startDate)
+                        .param("endDate", endDate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").exists());
+    }
+
     @Test
     void test_getSearchEvents() throws Exception {
         List<EventResponseDTO> responseList = getEventResponseDTO();
 
-        when(eventService.searchEvents("evento")).thenReturn(responseList);
+        when(eventService.searchEvents("evento", 0, 10)).thenReturn(responseList);
+
+        mockMvc.perform(get("/api/event/search")
+                        .param("title", "evento"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").exists());
+    }
+
+    @Test
+    void test_getSearchEventsWithSizeAboveLimit() throws Exception {
+        mockMvc.perform(get("/api/event/search")
+                        .param("title", "evento")
+                        .param("size", String.valueOf(EventController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", startsWith("A validação do campo 'size' falhou")));
+
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void test_getEventsWithSizeAboveLimit() throws Exception {
+        mockMvc.perform(get("/api/event")
+                        .param("size", "1000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService, upcomingPagesSnapshot);
+    }
+
+    @Test
+    void test_getSearchEventsWithETag() throws Exception {
+        when(eventService.searchEvents("evento", 0, 10)).thenReturn(getEventResponseDTO());
+
+        mockMvc.perform(get("/api/event/search")
+                        .param("title", "evento"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"test-1-")))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void test_getSearchEventsNotModified() throws Exception {
+        when(eventService.searchEvents("evento", 0, 10)).thenReturn(getEventResponseDTO());
+        String eTag = mockMvc.perform(get("/api/event/search")
+                        .param("title", "evento"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(eventService);
 
         mockMvc.perform(get("/api/event/search")
+                        .param("title", "evento")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void test_getSearchEventsModifiedAfterWrite() throws Exception {
+        when(eventService.searchEvents("evento", 0, 10)).thenReturn(getEventResponseDTO());
+        String eTag = mockMvc.perform(get("/api/event/search")
                         .param("title", "evento"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        when(eventCache.listingsVersion()).thenReturn(new EventCache.Version("test", 2, 1_700_000_001_000L, 1_700_000_006_000L));
+
+        mockMvc.perform(get("/api/event/search")
+                        .param("title", "evento")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0]").exists());
     }
 
+    @Test
+    void test_getEventDetailsModifiedAfterCouponExpiration() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        Date couponValid = new Date(System.currentTimeMillis() + 50);
+        EventDetailsDTO withCoupon = new EventDetailsDTO(eventId, "Teste de evento", "", new Date(),
+                "Brasilia", "DF", "", "https://www.teste.com",
+                List.of(new EventDetailsDTO.CouponDTO("CODE123", 10, couponValid)));
+        EventDetailsDTO withoutCoupon = new EventDetailsDTO(eventId, "Teste de evento", "", new Date(),
+                "Brasilia", "DF", "", "https://www.teste.com", List.of());
+        when(eventService.getEventDetails(eventId)).thenReturn(withCoupon, withoutCoupon);
+        String eTag = mockMvc.perform(get("/api/event/{eventId}", eventId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Thread.sleep(100);
+
+        mockMvc.perform(get("/api/event/{eventId}", eventId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coupons").isEmpty());
+    }
+
+    @Test
+    void test_getArchivedEvent() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        EventDetailsDTO archived = new EventDetailsDTO(eventId, "Evento passado", "Descrição", new Date(0), "Brasilia", "DF",
+                "", "https://www.teste.com", List.of());
+        when(eventArchiveService.getArchivedEvent(eventId)).thenReturn(archived);
+
+        mockMvc.perform(get("/api/event/archive/{eventId}", eventId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Evento passado"));
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void test_exportEvents() throws Exception {
+        when(eventExportService.exportNdjson(any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(0);
+            output.write("{\"title\":\"Evento 1\"}\n{\"title\":\"Evento 2\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        mockMvc.perform(get("/api/event/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("application/x-ndjson")))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events.ndjson\""))
+                .andExpect(content().string("{\"title\":\"Evento 1\"}\n{\"title\":\"Evento 2\"}\n"));
+    }
+
+    @Test
+    void test_importEventsFromCsv() throws Exception {
+        EventImportResultDTO result = new EventImportResultDTO(1, 1, 5, 400.0,
+                List.of(new EventImportResultDTO.RowError(3, "title: O título deve ser informado")));
+
+        when(eventImportService.importCsv(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/event/import")
+                        .content("title,description,date,state,remote,eventUrl\n")
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
     private static List<EventResponseDTO> getEventResponseDTO() {
         return List.of(new EventResponseDTO(
                 UUID.fromString("b4919825-dd11-4f6c-b77d-faffb48c1801"),
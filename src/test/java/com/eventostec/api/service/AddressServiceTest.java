@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -49,6 +50,23 @@ class AddressServiceTest {
         verify(addressRepository, times(1)).save(any(Address.class));
     }
 
+    @Test
+    void test_shouldSaveNormalizedLocation() {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setDate(new Date());
+        EventRequestDTO data = new EventRequestDTO("Teste Evento", "Descricao Evento", event.getDate().getTime(), "São  Paulo", "SP", false, "https://evento.com", null);
+
+        when(addressRepository.save(any(Address.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Address savedAddress = addressService.createAddress(data, event);
+
+        assertEquals("São  Paulo", savedAddress.getCity());
+        assertEquals("sao paulo", savedAddress.getCityNormalized());
+        assertEquals("sp", savedAddress.getUfNormalized());
+        assertEquals(event.getDate(), savedAddress.getEventDate());
+    }
+
     @Test
     void test_shouldReturnAddress() {
         UUID eventId = UUID.randomUUID();
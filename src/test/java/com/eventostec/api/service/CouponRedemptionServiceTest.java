@@ -0,0 +1,192 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.coupon.CouponRedeemResponseDTO;
+import com.eventostec.api.exceptions.CouponRedemptionException;
+import com.eventostec.api.repositories.CouponRedemptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CouponRedemptionServiceTest {
+
+    @Mock
+    private CouponRedemptionRepository repository;
+
+    private CouponRedemptionService couponRedemptionService;
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID couponId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        couponRedemptionService = new CouponRedemptionService(repository, 100, 60_000, 1_000, 50, 5_000);
+        couponRedemptionService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        couponRedemptionService.shutdown();
+    }
+
+    @Test
+    void test_shouldRedeemCouponAndReportRemainingUses() {
+        stubCoupon(3, 1);
+
+        CouponRedeemResponseDTO redemption = couponRedemptionService.redeem(eventId, "PROMO");
+
+        assertEquals(20, redemption.discount());
+        assertEquals(1, redemption.remainingRedemptions());
+        verify(repository, times(1)).applyRedemptions(argThat(counts -> counts.get(couponId) == 1));
+    }
+
+    @Test
+    void test_shouldNeverOverRedeemUnderConcurrency() throws Exception {
+        stubCoupon(10, 0);
+        AtomicInteger written = new AtomicInteger();
+        when(repository.applyRedemptions(any())).thenAnswer(invocation -> {
+            Map<UUID, Integer> counts = invocation.getArgument(0);
+            written.addAndGet(counts.get(couponId));
+            return counts;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> results = new ArrayList<>();
+        Callable<Boolean> redeem = () -> {
+            try {
+                couponRedemptionService.redeem(eventId, "PROMO");
+                return true;
+            } catch (CouponRedemptionException e) {
+                return false;
+            }
+        };
+        for (int i = 0; i < 100; i++) {
+            results.add(executor.submit(redeem));
+        }
+        int redeemed = 0;
+        for (Future<Boolean> result : results) {
+            redeemed += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(10, redeemed);
+        assertEquals(10, written.get());
+    }
+
+    @Test
+    void test_shouldFailRedemptionRejectedByDatabase() {
+        stubCoupon(5, 0);
+        when(repository.applyRedemptions(any())).thenReturn(Map.of(couponId, 0));
+
+        assertReason(CouponRedemptionException.Reason.EXHAUSTED, "PROMO");
+        assertReason(CouponRedemptionException.Reason.EXHAUSTED, "PROMO");
+        // The rejected coupon is dropped from the index and reloaded from the database.
+        verify(repository, times(2)).findActiveCoupon(eq(eventId), eq("PROMO"), any(Date.class));
+    }
+
+    @Test
+    void test_shouldConfirmOnlyTheRedemptionsGrantedByDatabase() throws Exception {
+        stubCoupon(10, 0);
+        // Another instance already took all but 3 of the redemptions.
+        AtomicInteger left = new AtomicInteger(3);
+        when(repository.applyRedemptions(any())).thenAnswer(invocation -> {
+            Map<UUID, Integer> counts = invocation.getArgument(0);
+            int granted = Math.min(counts.get(couponId), left.get());
+            left.addAndGet(-granted);
+            return Map.of(couponId, granted);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    couponRedemptionService.redeem(eventId, "PROMO");
+                    return true;
+                } catch (CouponRedemptionException e) {
+                    return false;
+                }
+            }));
+        }
+        int redeemed = 0;
+        for (Future<Boolean> result : results) {
+            redeemed += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(3, redeemed);
+    }
+
+    @Test
+    void test_shouldReportDatabaseFailureAsUnavailable() {
+        stubCoupon(5, 0);
+        when(repository.applyRedemptions(any())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertReason(CouponRedemptionException.Reason.UNAVAILABLE, "PROMO");
+    }
+
+    @Test
+    void test_shouldRejectExhaustedCouponWithoutWriting() {
+        stubCoupon(1, 1);
+
+        assertReason(CouponRedemptionException.Reason.EXHAUSTED, "PROMO");
+        verify(repository, never()).applyRedemptions(any());
+    }
+
+    @Test
+    void test_shouldRejectUnknownCoupon() {
+        when(repository.findActiveCoupon(eq(eventId), eq("NOPE"), any(Date.class))).thenReturn(Optional.empty());
+
+        assertReason(CouponRedemptionException.Reason.NOT_FOUND, "NOPE");
+    }
+
+    @Test
+    void test_shouldRedeemUnlimitedCoupon() {
+        when(repository.findActiveCoupon(eq(eventId), eq("PROMO"), any(Date.class))).thenReturn(Optional.of(
+                new CouponRedemptionRepository.CouponUsage(couponId, 20, new Date(System.currentTimeMillis() + 60_000), null, 1_000)));
+        when(repository.applyRedemptions(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CouponRedeemResponseDTO redemption = couponRedemptionService.redeem(eventId, "PROMO");
+
+        assertNull(redemption.remainingRedemptions());
+    }
+
+    @Test
+    void test_shouldRejectRedemptionsAfterShutdown() throws InterruptedException {
+        stubCoupon(5, 0);
+        couponRedemptionService.shutdown();
+
+        assertReason(CouponRedemptionException.Reason.UNAVAILABLE, "PROMO");
+        verify(repository, never()).applyRedemptions(any());
+    }
+
+    private void assertReason(CouponRedemptionException.Reason reason, String code) {
+        CouponRedemptionException exception = assertThrows(CouponRedemptionException.class,
+                () -> couponRedemptionService.redeem(eventId, code));
+        assertEquals(reason, exception.getReason());
+    }
+
+    private void stubCoupon(int maxRedemptions, int redemptions) {
+        when(repository.findActiveCoupon(eq(eventId), eq("PROMO"), any(Date.class))).thenReturn(Optional.of(
+                new CouponRedemptionRepository.CouponUsage(couponId, 20, new Date(System.currentTimeMillis() + 60_000), maxRedemptions, redemptions)));
+        when(repository.applyRedemptions(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+}
@@ -1,8 +1,10 @@
 package com.eventostec.api.service;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.repositories.CouponBatchRepository;
 import com.eventostec.api.repositories.CouponRepository;
 import com.eventostec.api.repositories.EventRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -24,12 +27,21 @@ class CouponServiceTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private EventCache eventCache;
+
+    @Mock
+    private CouponBatchRepository couponBatchRepository;
+
     @InjectMocks
     private CouponService couponService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(couponService, "maxBatchCount", 1_000);
+        ReflectionTestUtils.setField(couponService, "defaultCodeLength", 8);
+        ReflectionTestUtils.setField(couponService, "defaultAlphabet", "ABCDEFGHJKLMNPQRSTUVWXYZ23456789");
     }
 
     @Test
@@ -37,7 +49,7 @@ class CouponServiceTest {
         UUID eventId = UUID.randomUUID();
         Event event = new Event();
         event.setId(eventId);
-        CouponRequestDTO couponData = new CouponRequestDTO("TESTCODE", 20, new Date().getTime());
+        CouponRequestDTO couponData = new CouponRequestDTO("TESTCODE", 20, new Date().getTime(), null);
         Coupon coupon = new Coupon();
         coupon.setCode(couponData.code());
         coupon.setDiscount(couponData.discount());
@@ -53,12 +65,27 @@ class CouponServiceTest {
         assertEquals("TESTCODE", savedCoupon.getCode());
         verify(eventRepository, times(1)).findById(eventId);
         verify(couponRepository, times(1)).save(any(Coupon.class));
+        verify(eventCache, times(1)).evictDetails(eventId);
+    }
+
+    @Test
+    void test_shouldRejectCodeOfSingleUseCoupon() {
+        UUID eventId = UUID.randomUUID();
+        Event event = new Event();
+        event.setId(eventId);
+        CouponRequestDTO couponData = new CouponRequestDTO("K7PQ2M9X", 20, new Date().getTime(), null);
+
+        when(eventRepository.findById(eventId)).thenReturn(Optional.of(event));
+        when(couponBatchRepository.isSingleUseCode(eventId, "K7PQ2M9X")).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> couponService.addCouponToEvent(eventId, couponData));
+        verify(couponRepository, never()).save(any(Coupon.class));
     }
 
     @Test
     void test_shouldThrowExceptionWhenEventNotFound() {
         UUID eventId = UUID.randomUUID();
-        CouponRequestDTO couponData = new CouponRequestDTO("TESTCODE", 20, new Date().getTime());
+        CouponRequestDTO couponData = new CouponRequestDTO("TESTCODE", 20, new Date().getTime(), null);
 
         when(eventRepository.findById(eventId)).thenReturn(Optional.empty());
 
@@ -79,7 +106,7 @@ class CouponServiceTest {
         event.setDate(new Date());
         event.setEventUrl("https://evento.com");
 
-        List<Coupon> coupons = List.of(new Coupon(eventId, "CP123", 20, currentDate, event));
+        List<Coupon> coupons = List.of(new Coupon(eventId, "CP123", 20, currentDate, false, null, 0, event));
 
         when(couponRepository.findByEventIdAndValidAfter(eventId, currentDate)).thenReturn(coupons);
 
@@ -105,4 +132,53 @@ class CouponServiceTest {
         assertTrue(result.isEmpty());
         verify(couponRepository, times(1)).findByEventIdAndValidAfter(eventId, currentDate);
     }
+
+    @Test
+    void test_shouldGenerateUniqueCouponsInOneBatch() {
+        UUID eventId = UUID.randomUUID();
+        when(couponBatchRepository.lockEvent(eventId)).thenReturn(true);
+        when(couponBatchRepository.findCodesByEventId(eventId)).thenReturn(Set.of("AAAA"));
+
+        List<String> codes = couponService.generateCoupons(eventId, new CouponBatchRequestDTO(30, 10, new Date().getTime(), 4, "ABC"));
+
+        assertEquals(30, codes.size());
+        assertEquals(30, new HashSet<>(codes).size());
+        assertFalse(codes.contains("AAAA"));
+        assertTrue(codes.stream().allMatch(code -> code.matches("[ABC]{4}")));
+        verify(couponBatchRepository, times(1)).insertSingleUseCoupons(eq(eventId), eq(codes), eq(10), any(Date.class));
+    }
+
+    @Test
+    void test_shouldUseDefaultCodeFormat() {
+        UUID eventId = UUID.randomUUID();
+        when(couponBatchRepository.lockEvent(eventId)).thenReturn(true);
+        when(couponBatchRepository.findCodesByEventId(eventId)).thenReturn(Set.of());
+
+        List<String> codes = couponService.generateCoupons(eventId, new CouponBatchRequestDTO(3, 10, new Date().getTime(), null, null));
+
+        assertTrue(codes.stream().allMatch(code -> code.matches("[A-Z2-9]{8}")));
+    }
+
+    @Test
+    void test_shouldRejectBatchLargerThanCodeSpace() {
+        UUID eventId = UUID.randomUUID();
+        when(couponBatchRepository.lockEvent(eventId)).thenReturn(true);
+        when(couponBatchRepository.findCodesByEventId(eventId)).thenReturn(Set.of());
+
+        CouponBatchRequestDTO batchData = new CouponBatchRequestDTO(9, 10, new Date().getTime(), 4, "AB");
+
+        assertThrows(IllegalArgumentException.class, () -> couponService.generateCoupons(eventId, batchData));
+        verify(couponBatchRepository, never()).insertSingleUseCoupons(any(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    void test_shouldNotGenerateCouponsForMissingEvent() {
+        UUID eventId = UUID.randomUUID();
+        when(couponBatchRepository.lockEvent(eventId)).thenReturn(false);
+
+        CouponBatchRequestDTO batchData = new CouponBatchRequestDTO(5, 10, new Date().getTime(), null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> couponService.generateCoupons(eventId, batchData));
+        verify(couponBatchRepository, never()).insertSingleUseCoupons(any(), anyCollection(), anyInt(), any());
+    }
 }
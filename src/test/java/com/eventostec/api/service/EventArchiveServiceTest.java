@@ -0,0 +1,93 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.repositories.EventArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventArchiveServiceTest {
+
+    private EventArchiveRepository repository;
+    private EventSearchIndex searchIndex;
+    private EventFilterIndex filterIndex;
+    private EventCache cache;
+    private EventArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventArchiveRepository.class);
+        searchIndex = mock(EventSearchIndex.class);
+        filterIndex = mock(EventFilterIndex.class);
+        cache = mock(EventCache.class);
+        archiveService = new EventArchiveService(repository, searchIndex, filterIndex, cache, true, 30, 2, 0, 3_600_000);
+    }
+
+    @Test
+    void test_shouldArchiveInBatchesUntilOneIsNotFull() {
+        EventArchiveRepository.ArchivedEvent first = archived();
+        EventArchiveRepository.ArchivedEvent second = archived();
+        EventArchiveRepository.ArchivedEvent third = archived();
+        when(repository.archiveEventsBefore(any(), eq(2), any()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(repository.archiveCouponsBefore(any(), eq(2), any())).thenReturn(2, 2, 0);
+
+        archiveService.archive();
+
+        verify(repository, times(2)).archiveEventsBefore(any(), anyInt(), any());
+        verify(repository, times(3)).archiveCouponsBefore(any(), anyInt(), any());
+        for (EventArchiveRepository.ArchivedEvent event : List.of(first, second, third)) {
+            verify(searchIndex).remove(event.id());
+            verify(filterIndex).remove(event.id(), event.date());
+            verify(cache).evictDetails(event.id());
+        }
+    }
+
+    @Test
+    void test_shouldKeepEventsWithinRetention() {
+        when(repository.archiveEventsBefore(any(), anyInt(), any())).thenReturn(List.of());
+        long start = System.currentTimeMillis();
+
+        archiveService.archive();
+
+        ArgumentCaptor<Date> before = ArgumentCaptor.forClass(Date.class);
+        verify(repository).archiveEventsBefore(before.capture(), eq(2), any());
+        long retentionMs = TimeUnit.DAYS.toMillis(30);
+        assertTrue(before.getValue().getTime() >= start - retentionMs);
+        assertTrue(before.getValue().getTime() <= System.currentTimeMillis() - retentionMs);
+        verifyNoInteractions(searchIndex, filterIndex, cache);
+    }
+
+    @Test
+    void test_shouldNotArchiveWhenDisabled() {
+        archiveService = new EventArchiveService(repository, searchIndex, filterIndex, cache, false, 30, 2, 0, 3_600_000);
+
+        archiveService.archive();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void test_shouldThrowWhenArchivedEventNotFound() {
+        UUID eventId = UUID.randomUUID();
+        when(repository.findArchivedEventDetails(eventId)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> archiveService.getArchivedEvent(eventId));
+    }
+
+    private static EventArchiveRepository.ArchivedEvent archived() {
+        return new EventArchiveRepository.ArchivedEvent(UUID.randomUUID(), new Date(0));
+    }
+}
@@ -0,0 +1,125 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCacheTest {
+
+    private EventCache eventCache;
+
+    @BeforeEach
+    void setUp() {
+        eventCache = new EventCache(100, 60_000, 2, 100, 60_000, 5_000);
+    }
+
+    @Test
+    void test_shouldLoadDetailsOnlyOnce() {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        eventCache.getDetails(eventId, () -> details(eventId, loads, List.of()));
+        eventCache.getDetails(eventId, () -> details(eventId, loads, List.of()));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void test_shouldReloadDetailsAfterEviction() {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        eventCache.getDetails(eventId, () -> details(eventId, loads, List.of()));
+        eventCache.evictDetails(eventId);
+        eventCache.getDetails(eventId, () -> details(eventId, loads, List.of()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_shouldNotCacheDetailsEvictedWhileLoading() {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        eventCache.getDetails(eventId, () -> {
+            eventCache.evictDetails(eventId);
+            return details(eventId, loads, List.of());
+        });
+        eventCache.getDetails(eventId, () -> details(eventId, loads, List.of()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_shouldNotServeDetailsWithExpiredCoupon() {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        List<EventDetailsDTO.CouponDTO> expired = List.of(new EventDetailsDTO.CouponDTO("CP10", 10, new Date(System.currentTimeMillis() - 1)));
+
+        eventCache.getDetails(eventId, () -> details(eventId, loads, expired));
+        eventCache.getDetails(eventId, () -> details(eventId, loads, expired));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_shouldOnlyCacheFirstUpcomingPages() {
+        AtomicInteger loads = new AtomicInteger();
+
+        eventCache.getUpcomingPage(1, 10, () -> page(loads));
+        eventCache.getUpcomingPage(1, 10, () -> page(loads));
+        eventCache.getUpcomingPage(2, 10, () -> page(loads));
+        eventCache.getUpcomingPage(2, 10, () -> page(loads));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void test_shouldReportStats() {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        eventCache.getDetails(eventId, () -> details(eventId, loads, List.of()));
+        eventCache.getDetails(eventId, () -> details(eventId, loads, List.of()));
+
+        CacheStatsDTO stats = eventCache.stats().get(0);
+        assertEquals("event-details", stats.name());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void test_shouldChangeVersionOnEviction() {
+        EventCache.Version details = eventCache.detailsVersion();
+        EventCache.Version listings = eventCache.listingsVersion();
+
+        eventCache.evictDetails(UUID.randomUUID());
+
+        assertNotEquals(details, eventCache.detailsVersion());
+        assertEquals(listings, eventCache.listingsVersion());
+
+        eventCache.evictUpcomingPages();
+
+        assertNotEquals(listings, eventCache.listingsVersion());
+    }
+
+    private static EventDetailsDTO details(UUID eventId, AtomicInteger loads, List<EventDetailsDTO.CouponDTO> coupons) {
+        loads.incrementAndGet();
+        return new EventDetailsDTO(eventId, "Teste de evento", "Descrição", new Date(), "Brasilia", "DF", "", "https://www.teste.com", coupons);
+    }
+
+    private static List<EventResponseDTO> page(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return List.of(new EventResponseDTO(UUID.randomUUID(), "Teste de evento", "Descrição", new Date(System.currentTimeMillis() + 60_000),
+                "Brasilia", "DF", false, "https://www.teste.com", ""));
+    }
+}
@@ -0,0 +1,70 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.repositories.EventCountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EventCountServiceTest {
+
+    @Mock
+    private EventCountRepository repository;
+
+    @Mock
+    private EventFilterIndex filterIndex;
+
+    @InjectMocks
+    private EventCountService eventCountService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventCountService, "refreshIntervalMs", 60_000L);
+    }
+
+    @Test
+    void test_shouldCacheUpcomingCountUntilRefresh() {
+        when(repository.estimateUpcomingEvents(any(Date.class))).thenReturn(10L, 12L);
+
+        assertEquals(10L, eventCountService.estimateUpcomingEvents());
+        assertEquals(10L, eventCountService.estimateUpcomingEvents());
+
+        eventCountService.refresh();
+
+        assertEquals(12L, eventCountService.estimateUpcomingEvents());
+        verify(repository, times(2)).estimateUpcomingEvents(any(Date.class));
+    }
+
+    @Test
+    void test_shouldCacheFilteredCountPerFilter() {
+        Date startDate = new Date(0);
+        Date endDate = new Date();
+        LocationFilter location = LocationFilter.of("Brasília", "DF", LocationFilter.Match.EXACT);
+        when(repository.estimateFilteredEvents(location, startDate, endDate)).thenReturn(3L, 5L);
+
+        assertEquals(3L, eventCountService.estimateFilteredEvents(location, startDate, endDate));
+        assertEquals(3L, eventCountService.estimateFilteredEvents(location, startDate, endDate));
+
+        eventCountService.refresh();
+
+        assertEquals(5L, eventCountService.estimateFilteredEvents(location, startDate, endDate));
+        verify(repository, times(2)).estimateFilteredEvents(location, startDate, endDate);
+    }
+
+    @Test
+    void test_shouldNotCountUpcomingEventsBeforeFirstRequest() {
+        eventCountService.refresh();
+
+        verify(repository, never()).estimateUpcomingEvents(any(Date.class));
+    }
+}
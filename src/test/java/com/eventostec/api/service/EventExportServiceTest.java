@@ -0,0 +1,62 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.EventAddressProjection;
+import com.eventostec.api.repositories.EventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventExportServiceTest {
+
+    private final EventRepository repository = mock(EventRepository.class);
+    private final EventExportService exportService = new EventExportService(repository);
+
+    @Test
+    void test_shouldWriteOneEventPerLine() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<EventAddressProjection> events = Stream.of(event("Evento 1", "Brasilia"), event("Evento 2", null))
+                .onClose(() -> closed.set(true));
+        when(repository.streamAllEvents()).thenReturn(events);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = exportService.exportNdjson(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("Evento 1", first.get("title").asText());
+        assertEquals("Brasilia", first.get("city").asText());
+        assertEquals(1_700_000_000_000L, first.get("date").asLong());
+        assertEquals("", new ObjectMapper().readTree(lines[1]).get("city").asText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void test_shouldWriteNothingWithoutEvents() throws Exception {
+        when(repository.streamAllEvents()).thenReturn(Stream.empty());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportNdjson(output));
+        assertEquals(0, output.size());
+    }
+
+    private static EventAddressProjection event(String title, String city) {
+        EventAddressProjection event = mock(EventAddressProjection.class);
+        when(event.getId()).thenReturn(UUID.randomUUID());
+        when(event.getTitle()).thenReturn(title);
+        when(event.getDate()).thenReturn(new Date(1_700_000_000_000L));
+        when(event.getCity()).thenReturn(city);
+        return event;
+    }
+}
@@ -0,0 +1,189 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventCursor;
+import com.eventostec.api.domain.event.LocationFilter;
+import com.eventostec.api.repositories.EventLocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+class EventFilterIndexTest {
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final LocationFilter ANYWHERE = LocationFilter.of("", "", LocationFilter.Match.EXACT);
+
+    @Mock
+    private EventLocationRepository repository;
+
+    private EventFilterIndex filterIndex;
+    private Date now;
+    private Date nextYear;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filterIndex = new EventFilterIndex(repository, true, 1);
+        now = new Date();
+        nextYear = new Date(now.getTime() + 365 * DAY_MS);
+    }
+
+    @Test
+    void test_shouldNotCoverDatesBeforeLoading() {
+        filterIndex.add(address("Recife", "PE", days(1)));
+
+        assertFalse(filterIndex.covers(now));
+    }
+
+    @Test
+    void test_shouldOnlyCoverDatesInsideTheWindow() {
+        load();
+
+        assertTrue(filterIndex.covers(now));
+        assertFalse(filterIndex.covers(new Date(now.getTime() - 2 * DAY_MS)));
+    }
+
+    @Test
+    void test_shouldFilterByExactCityAndUf() {
+        Address recife = address("Recife", "PE", days(2));
+        load(address("Olinda", "PE", days(1)), recife, address("Recife", "BA", days(3)));
+
+        assertEquals(List.of(id(recife)), filterIndex.filter(LocationFilter.of("RECIFE", "pe", LocationFilter.Match.EXACT), now, nextYear, 0, 10));
+    }
+
+    @Test
+    void test_shouldFilterByCityPrefix() {
+        Address saoPaulo = address("São Paulo", "SP", days(1));
+        Address saoCarlos = address("São Carlos", "SP", days(2));
+        load(saoPaulo, saoCarlos, address("Santos", "SP", days(3)));
+
+        assertEquals(List.of(id(saoPaulo), id(saoCarlos)), filterIndex.filter(LocationFilter.of("sao", "", LocationFilter.Match.PREFIX), now, nextYear, 0, 10));
+    }
+
+    @Test
+    void test_shouldFilterByCityAndUfSubstring() {
+        Address saoPaulo = address("São Paulo", "SP", days(1));
+        Address pauloAfonso = address("Paulo Afonso", "PE", days(2));
+        load(saoPaulo, pauloAfonso, address("Recife", "PE", days(3)), address("Paulínia", "SP", days(4)));
+        Address campoPaulo = address("Campo Paulo", "PR", days(5));
+        filterIndex.add(campoPaulo);
+
+        assertEquals(List.of(id(saoPaulo), id(pauloAfonso), id(campoPaulo)),
+                filterIndex.filter(LocationFilter.of("paulo", "p", LocationFilter.Match.CONTAINS), now, nextYear, 0, 10));
+    }
+
+    @Test
+    void test_shouldMergeWritesInDateOrder() {
+        Address first = address("Recife", "PE", days(1));
+        Address third = address("Recife", "PE", days(3));
+        load(first, third);
+
+        Address second = address("Recife", "PE", days(2));
+        Address fourth = address("Recife", "PE", days(4));
+        filterIndex.add(fourth);
+        filterIndex.add(second);
+
+        assertEquals(List.of(id(first), id(second), id(third), id(fourth)), filterIndex.filter(ANYWHERE, now, nextYear, 0, 10));
+        assertEquals(List.of(id(third), id(fourth)), filterIndex.filter(ANYWHERE, now, nextYear, 1, 2));
+        assertEquals(4, filterIndex.count(ANYWHERE, now, nextYear));
+    }
+
+    @Test
+    void test_shouldSeekAfterCursor() {
+        Address first = address("Recife", "PE", days(1));
+        Address second = address("Recife", "PE", days(2));
+        Address third = address("Recife", "PE", days(3));
+        load(first, second);
+        filterIndex.add(third);
+
+        EventCursor cursor = new EventCursor(first.getEventDate(), id(first));
+
+        assertEquals(List.of(id(second), id(third)), filterIndex.filterAfter(ANYWHERE, now, nextYear, cursor, 10));
+    }
+
+    @Test
+    void test_shouldStopAtEndDate() {
+        Address first = address("Recife", "PE", days(1));
+        load(first, address("Recife", "PE", days(10)));
+        filterIndex.add(address("Recife", "PE", days(11)));
+
+        assertEquals(List.of(id(first)), filterIndex.filter(ANYWHERE, now, days(5), 0, 10));
+        assertEquals(1, filterIndex.count(ANYWHERE, now, days(5)));
+    }
+
+    @Test
+    void test_shouldNotReturnRemovedEvents() {
+        Address loaded = address("Recife", "PE", days(1));
+        load(loaded);
+        Address added = address("Recife", "PE", days(2));
+        filterIndex.add(added);
+
+        filterIndex.remove(id(loaded), loaded.getEventDate());
+        filterIndex.remove(id(added), added.getEventDate());
+
+        assertTrue(filterIndex.filter(ANYWHERE, now, nextYear, 0, 10).isEmpty());
+        assertEquals(0, filterIndex.count(ANYWHERE, now, nextYear));
+    }
+
+    @Test
+    void test_shouldKeepEventsWrittenWhileRebuilding() {
+        Address written = address("Recife", "PE", days(1));
+        doAnswer(invocation -> {
+            filterIndex.add(written);
+            return null;
+        }).when(repository).forEachLocationFrom(any(Date.class), any());
+
+        filterIndex.rebuild();
+
+        assertEquals(List.of(id(written)), filterIndex.filter(ANYWHERE, now, nextYear, 0, 10));
+    }
+
+    @Test
+    void test_shouldIgnoreWritesWhenDisabled() {
+        EventFilterIndex disabled = new EventFilterIndex(repository, false, 1);
+
+        disabled.rebuild();
+        disabled.add(address("Recife", "PE", days(1)));
+
+        assertFalse(disabled.covers(now));
+    }
+
+    /**
+     * Loads the addresses, which must be given in date order, as the repository returns them.
+     */
+    private void load(Address... addresses) {
+        doAnswer(invocation -> {
+            EventLocationRepository.LocationHandler handler = invocation.getArgument(1);
+            for (Address address : addresses) {
+                handler.accept(id(address), address.getCityNormalized(), address.getUfNormalized(), address.getEventDate().getTime());
+            }
+            return null;
+        }).when(repository).forEachLocationFrom(any(Date.class), any());
+        filterIndex.rebuild();
+    }
+
+    private Date days(int days) {
+        return new Date(now.getTime() + days * DAY_MS);
+    }
+
+    private static UUID id(Address address) {
+        return address.getEvent().getId();
+    }
+
+    private static Address address(String city, String uf, Date date) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setDate(date);
+        return AddressService.newAddress(UUID.randomUUID(), city, uf, event);
+    }
+}
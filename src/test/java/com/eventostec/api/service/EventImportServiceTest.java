@@ -0,0 +1,154 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventImportResultDTO;
+import com.eventostec.api.mappers.EventMapperImpl;
+import com.eventostec.api.repositories.EventImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class EventImportServiceTest {
+
+    @Mock
+    private EventImportRepository importRepository;
+
+    @Mock
+    private EventSearchIndex searchIndex;
+
+    @Mock
+    private EventFilterIndex filterIndex;
+
+    @Mock
+    private EventCache cache;
+
+    private EventImportService eventImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        eventImportService = new EventImportService(importRepository, searchIndex, filterIndex, cache, new EventMapperImpl(),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        ReflectionTestUtils.setField(eventImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(eventImportService, "maxReportedErrors", 10);
+        ReflectionTestUtils.setField(eventImportService, "maxLineLength", 200);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void test_shouldImportNdjsonInChunks() throws Exception {
+        InputStream input = stream("""
+                {"title":"Evento 1","description":"Descrição","date":1893456000000,"city":"Brasilia","state":"DF","remote":false,"eventUrl":"https://evento.com"}
+                {"title":"Evento 2","description":"Descrição","date":1893456000000,"state":"DF","remote":true,"eventUrl":"https://evento.com"}
+
+                {"title":"Evento 3","description":"Descrição","date":1893456000000,"city":"Recife","state":"PE","eventUrl":"https://evento.com"}
+                """);
+
+        EventImportResultDTO result = eventImportService.importNdjson(input);
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        ArgumentCaptor<List<Event>> events = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Address>> addresses = ArgumentCaptor.forClass(List.class);
+        verify(importRepository, times(2)).insertAll(events.capture(), addresses.capture());
+        assertEquals(2, events.getAllValues().get(0).size());
+        assertEquals(1, addresses.getAllValues().get(0).size());
+        assertEquals("Brasilia", addresses.getAllValues().get(0).get(0).getCity());
+        assertFalse(events.getAllValues().get(1).get(0).getRemote());
+        assertNotNull(events.getAllValues().get(1).get(0).getId());
+        verify(searchIndex, times(3)).add(any(Event.class));
+        verify(filterIndex, times(2)).add(any(Address.class));
+        verify(cache).evictUpcomingPages();
+    }
+
+    @Test
+    void test_shouldReportInvalidRowsAndKeepImporting() throws Exception {
+        InputStream input = stream("""
+                {"title":"Evento 1","description":"Descrição","date":1893456000000,"state":"DF","remote":true,"eventUrl":"https://evento.com"}
+                {"description":"Descrição","date":1893456000000,"state":"DF","remote":true,"eventUrl":"https://evento.com"}
+                {"title":"Evento 3",
+                {"title":"Evento 4","description":"Descrição","date":1893456000000,"state":"DF","remote":false,"eventUrl":"https://evento.com"}
+                """);
+
+        EventImportResultDTO result = eventImportService.importNdjson(input);
+
+        assertEquals(1, result.imported());
+        assertEquals(3, result.failed());
+        assertEquals(List.of(2L, 3L, 4L), result.errors().stream().map(EventImportResultDTO.RowError::line).toList());
+        assertTrue(result.errors().get(0).message().startsWith("title:"));
+        assertTrue(result.errors().get(2).message().startsWith("city:"));
+    }
+
+    @Test
+    void test_shouldReportLinesLongerThanTheLimit() throws Exception {
+        InputStream input = stream("{\"title\":\"" + "x".repeat(500) + "\"}\r\n"
+                + "{\"title\":\"Evento 2\",\"description\":\"Descrição\",\"date\":1893456000000,\"state\":\"DF\",\"remote\":true,\"eventUrl\":\"https://evento.com\"}\n");
+
+        EventImportResultDTO result = eventImportService.importNdjson(input);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(1L, result.errors().get(0).line());
+        assertEquals("Linha maior que 200 caracteres", result.errors().get(0).message());
+    }
+
+    @Test
+    void test_shouldImportCsvWithQuotedFields() throws Exception {
+        InputStream input = stream("""
+                eventUrl,title,description,date,city,state,remote
+                https://evento.com,"Evento, o primeiro","Linha 1
+                Linha 2 com \"\"aspas\"\"",1893456000000,Brasilia,DF,false
+                https://evento.com,Evento 2,Descrição,amanhã,Brasilia,DF,false
+                """);
+
+        EventImportResultDTO result = eventImportService.importCsv(input);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(4, result.errors().get(0).line());
+        verify(searchIndex).add(argThat(event -> event.getTitle().equals("Evento, o primeiro")
+                && event.getDescription().equals("Linha 1\nLinha 2 com \"aspas\"")));
+    }
+
+    @Test
+    void test_shouldReportEveryRowOfFailedChunk() throws Exception {
+        doThrow(new DataIntegrityViolationException("boom")).when(importRepository).insertAll(anyList(), anyList());
+        InputStream input = stream("""
+                title,description,date,city,state,remote,eventUrl
+                Evento 1,Descrição,1893456000000,,DF,true,https://evento.com
+                Evento 2,Descrição,1893456000000,,DF,true,https://evento.com
+                """);
+
+        EventImportResultDTO result = eventImportService.importCsv(input);
+
+        assertEquals(0, result.imported());
+        assertEquals(2, result.failed());
+        verifyNoInteractions(searchIndex, cache);
+    }
+
+    @Test
+    void test_shouldRejectCsvWithoutHeader() {
+        assertThrows(IllegalArgumentException.class, () -> eventImportService.importCsv(stream("a,b,c\n")));
+        verifyNoInteractions(importRepository);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.repositories.EventListingRebuildRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class EventListingServiceTest {
+
+    private EventListingRebuildRepository repository;
+    private EventSearchIndex searchIndex;
+    private EventFilterIndex filterIndex;
+    private EventCache cache;
+    private EventListingService listingService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventListingRebuildRepository.class);
+        searchIndex = mock(EventSearchIndex.class);
+        filterIndex = mock(EventFilterIndex.class);
+        cache = mock(EventCache.class);
+        listingService = new EventListingService(repository, searchIndex, filterIndex, cache, "test-admin-key", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listingService.shutdown();
+    }
+
+    @Test
+    void test_shouldRebuildInBatchesStartingAfterTheLastId() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(repository.rebuildAfter(EventListingRebuildRepository.FIRST, 2)).thenReturn(List.of(first, second));
+        when(repository.rebuildAfter(second, 2)).thenReturn(List.of(third));
+
+        assertEquals(3, listingService.rebuild());
+        verify(repository, times(2)).rebuildAfter(any(), anyInt());
+    }
+
+    @Test
+    void test_shouldReloadIndexesAndEvictListingsAfterRebuild() {
+        when(repository.rebuildAfter(any(), anyInt())).thenReturn(List.of());
+
+        listingService.rebuild();
+
+        InOrder inOrder = inOrder(repository, searchIndex, filterIndex, cache);
+        inOrder.verify(repository).rebuildAfter(any(), anyInt());
+        inOrder.verify(searchIndex).rebuild();
+        inOrder.verify(filterIndex).rebuild();
+        inOrder.verify(cache).evictUpcomingPages();
+    }
+
+    @Test
+    void test_shouldRunOneRebuildAtATimeInTheBackground() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.rebuildAfter(any(), anyInt())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return List.of();
+        });
+
+        assertTrue(listingService.startRebuild("test-admin-key"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(listingService.startRebuild("test-admin-key"));
+
+        release.countDown();
+        verify(cache, timeout(5_000)).evictUpcomingPages();
+        verify(repository, times(1)).rebuildAfter(any(), anyInt());
+    }
+
+    @Test
+    void test_shouldRejectInvalidAdminKey() {
+        assertThrows(IllegalArgumentException.class, () -> listingService.startRebuild("wrong-key"));
+
+        verifyNoInteractions(repository);
+    }
+}
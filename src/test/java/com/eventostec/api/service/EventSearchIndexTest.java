@@ -0,0 +1,131 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.repositories.EventSearchTextRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+class EventSearchIndexTest {
+
+    @Mock
+    private EventSearchTextRepository searchTextRepository;
+
+    private EventSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchIndex = new EventSearchIndex(searchTextRepository);
+        ReflectionTestUtils.setField(searchIndex, "minSimilarity", 0.4);
+    }
+
+    @Test
+    void test_shouldIgnoreCaseAndAccents() {
+        Event event = event("Conferência de Tecnologia em São Paulo", "Palestras e workshops");
+        searchIndex.add(event);
+
+        assertEquals(List.of(event.getId()), searchIndex.search("CONFERENCIA sao paulo", 0, 10));
+    }
+
+    @Test
+    void test_shouldTolerateTypos() {
+        Event event = event("Semana de Java", "Evento para desenvolvedores");
+        searchIndex.add(event);
+
+        assertEquals(List.of(event.getId()), searchIndex.search("semnaa jav", 0, 10));
+    }
+
+    @Test
+    void test_shouldRankTitleMatchesFirst() {
+        Event inDescription = event("Encontro de devs", "Um dia inteiro sobre Kotlin");
+        Event inTitle = event("Kotlin Summit", "Um dia inteiro de palestras");
+        searchIndex.add(inDescription);
+        searchIndex.add(inTitle);
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId()), searchIndex.search("kotlin", 0, 10));
+    }
+
+    @Test
+    void test_shouldPageResults() {
+        Event first = event("Hackathon 1", "", new Date(1_000));
+        Event second = event("Hackathon 2", "", new Date(2_000));
+        Event third = event("Hackathon 3", "", new Date(3_000));
+        searchIndex.add(third);
+        searchIndex.add(first);
+        searchIndex.add(second);
+
+        assertEquals(List.of(first.getId(), second.getId()), searchIndex.search("hackathon", 0, 2));
+        assertEquals(List.of(third.getId()), searchIndex.search("hackathon", 1, 2));
+    }
+
+    @Test
+    void test_shouldNotReturnRemovedEvents() {
+        Event event = event("Meetup de Python", "Comunidade local");
+        searchIndex.add(event);
+
+        searchIndex.remove(event.getId());
+
+        assertTrue(searchIndex.search("python", 0, 10).isEmpty());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    void test_shouldLoadEventsOnRebuild() {
+        Event event = event("Cloud Day", "Infraestrutura na nuvem");
+        doAnswer(invocation -> {
+            invocation.<EventSearchTextRepository.SearchTextHandler>getArgument(0)
+                    .accept(event.getId(), event.getDate().getTime(), "cloud day", "infraestrutura na nuvem");
+            return null;
+        }).when(searchTextRepository).forEachSearchText(any());
+
+        searchIndex.rebuild();
+
+        assertEquals(List.of(event.getId()), searchIndex.search("cloud", 0, 10));
+    }
+
+    @Test
+    void test_shouldListEventsByDateForBlankQuery() {
+        Event loaded = event("Cloud Day", "", new Date(2_000));
+        Event removed = event("Meetup de Python", "", new Date(3_000));
+        doAnswer(invocation -> {
+            EventSearchTextRepository.SearchTextHandler handler = invocation.getArgument(0);
+            handler.accept(removed.getId(), removed.getDate().getTime(), "meetup de python", "");
+            handler.accept(loaded.getId(), loaded.getDate().getTime(), "cloud day", "");
+            return null;
+        }).when(searchTextRepository).forEachSearchText(any());
+        searchIndex.rebuild();
+
+        Event earlier = event("Hackathon", "", new Date(1_000));
+        Event later = event("Semana de Java", "", new Date(4_000));
+        searchIndex.remove(removed.getId());
+        searchIndex.add(later);
+        searchIndex.add(earlier);
+
+        assertEquals(List.of(earlier.getId(), loaded.getId(), later.getId()), searchIndex.search("", 0, 10));
+        assertEquals(List.of(later.getId()), searchIndex.search(" ", 1, 2));
+    }
+
+    private static Event event(String title, String description) {
+        return event(title, description, new Date());
+    }
+
+    private static Event event(String title, String description, Date date) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setTitle(title);
+        event.setDescription(description);
+        event.setDate(date);
+        return event;
+    }
+}
@@ -1,23 +1,25 @@
 package com.eventostec.api.service;
 
 import com.eventostec.api.domain.event.*;
+import com.eventostec.api.mappers.EventMapperImpl;
+import com.eventostec.api.repositories.EventFilterRepository;
+import com.eventostec.api.repositories.EventListingRepository;
 import com.eventostec.api.repositories.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.S3Utilities;
-import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.net.URI;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,35 +28,43 @@ import static org.mockito.Mockito.*;
 class EventServiceTest {
 
     @Mock
-    private S3Client s3Client;
+    private ImageUploadService imageUploadService;
 
     @Mock
-    private S3Utilities s3Utilities;
+    private ImageVariantService imageVariantService;
 
     @Mock
     private AddressService addressService;
 
     @Mock
-    private CouponService couponService;
+    private EventRepository repository;
 
     @Mock
-    private EventRepository repository;
+    private EventListingRepository listingRepository;
+
+    @Mock
+    private EventFilterRepository filterRepository;
+
+    @Mock
+    private EventSearchIndex searchIndex;
+
+    @Mock
+    private EventFilterIndex filterIndex;
 
     @InjectMocks
     private EventService eventService;
 
     private final String adminKey = "test-admin-key";
-    private final String bucketName = "test-bucket";
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        eventService = new EventService(s3Client, addressService, couponService, repository);
+        eventService = new EventService(imageUploadService, imageVariantService, addressService, repository, listingRepository, filterRepository,
+                TransactionOperations.withoutTransaction(), searchIndex, filterIndex, new EventCache(100, 60_000, 5, 100, 60_000, 5_000),
+                new SingleFlight(new SimpleMeterRegistry()));
         // Configurando valores diretamente nos atributos usando ReflectionTestUtils
+        ReflectionTestUtils.setField(eventService, "mapper", new EventMapperImpl());
         ReflectionTestUtils.setField(eventService, "adminKey", adminKey);
-        ReflectionTestUtils.setField(eventService, "bucketName", bucketName);
-        // Mockando S3Utilities
-        when(s3Client.utilities()).thenReturn(s3Utilities);
     }
 
     @Test
@@ -68,13 +78,30 @@ class EventServiceTest {
 
         assertNotNull(savedEvent);
         verify(repository, times(1)).save(any(Event.class));
+        verify(listingRepository, times(1)).save(any(EventListing.class));
+        verify(searchIndex, times(1)).add(savedEvent);
+    }
+
+    @Test
+    void test_shouldSaveListingWithAddress() {
+        EventRequestDTO requestDTO = new EventRequestDTO("Evento Teste", "Descrição do evento", new Date().getTime(), "São Paulo", "SP", false, "https://evento.com", null);
+        when(addressService.createAddress(eq(requestDTO), any(Event.class)))
+                .thenAnswer(invocation -> AddressService.newAddress(UUID.randomUUID(), "São Paulo", "SP", invocation.getArgument(1)));
+
+        eventService.createEvent(requestDTO);
+
+        verify(listingRepository, times(1)).save(argThat(listing -> "São Paulo".equals(listing.getCity())
+                && "sao paulo".equals(listing.getCityNormalized())
+                && "evento teste".equals(listing.getTitleNormalized())
+                && "descricao do evento".equals(listing.getDescriptionNormalized())));
+        verify(filterIndex, times(1)).add(any());
     }
 
     @Test
     void test_shouldReturnListOfEvents() {
         Pageable pageable = PageRequest.of(0, 10);
         List<EventAddressProjection> events = List.of(mock(EventAddressProjection.class));
-        Page<EventAddressProjection> eventsPage = new PageImpl<>(events);
+        Slice<EventAddressProjection> eventsPage = new SliceImpl<>(events);
 
         when(repository.findUpcomingEvents(any(Date.class), eq(pageable))).thenReturn(eventsPage);
 
@@ -84,25 +111,84 @@ class EventServiceTest {
         verify(repository, times(1)).findUpcomingEvents(any(Date.class), eq(pageable));
     }
 
+    @Test
+    void test_shouldSeekUpcomingEventsAfterCursor() {
+        EventCursor cursor = new EventCursor(new Date(), UUID.randomUUID());
+        List<EventAddressProjection> events = List.of(mock(EventAddressProjection.class));
+
+        when(repository.findUpcomingEventsAfter(any(Date.class), eq(cursor.date()), eq(cursor.id()), eq(Limit.of(10)))).thenReturn(events);
+
+        List<EventResponseDTO> result = eventService.getUpcomingEvents(cursor, 10);
+
+        assertEquals(1, result.size());
+        verify(repository, never()).findUpcomingEvents(any(Date.class), any(Pageable.class));
+    }
+
     @Test
     void test_shouldReturnEventDetails() {
         UUID eventId = UUID.randomUUID();
-        Event event = new Event();
-        event.setId(eventId);
-        event.setTitle("Teste de evento");
-        event.setDescription("Descrição do evento");
-        event.setDate(new Date());
-        event.setEventUrl("https://evento.com");
+        EventDetailsProjection firstCoupon = detailsRow(eventId, "CP10", 10);
+        EventDetailsProjection secondCoupon = detailsRow(eventId, "CP20", 20);
 
-        when(repository.findById(eventId)).thenReturn(Optional.of(event));
-        when(addressService.findByEventId(eventId)).thenReturn(Optional.empty());
-        when(couponService.consultCoupons(eventId, new Date())).thenReturn(Collections.emptyList());
+        when(repository.findEventDetails(eq(eventId), any(Date.class))).thenReturn(List.of(firstCoupon, secondCoupon));
 
         EventDetailsDTO result = eventService.getEventDetails(eventId);
 
         assertNotNull(result);
         assertEquals(eventId, result.id());
-        verify(repository, times(1)).findById(eventId);
+        assertEquals("Brasilia", result.city());
+        assertEquals(List.of("CP10", "CP20"), result.coupons().stream().map(EventDetailsDTO.CouponDTO::code).toList());
+        verify(repository, times(1)).findEventDetails(eq(eventId), any(Date.class));
+        verify(repository, never()).findById(eventId);
+        verifyNoInteractions(addressService);
+    }
+
+    @Test
+    void test_shouldServeRepeatedEventDetailsFromCache() {
+        UUID eventId = UUID.randomUUID();
+        EventDetailsProjection withoutCoupon = detailsRow(eventId, null, null);
+
+        when(repository.findEventDetails(eq(eventId), any(Date.class))).thenReturn(List.of(withoutCoupon));
+
+        eventService.getEventDetails(eventId);
+        eventService.getEventDetails(eventId);
+
+        verify(repository, times(1)).findEventDetails(eq(eventId), any(Date.class));
+    }
+
+    @Test
+    void test_shouldReloadUpcomingEventsAfterCreate() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<EventAddressProjection> eventsPage = new SliceImpl<>(List.of(mock(EventAddressProjection.class)));
+        when(repository.findUpcomingEvents(any(Date.class), eq(pageable))).thenReturn(eventsPage);
+
+        eventService.getUpcomingEvents(0, 10);
+        eventService.getUpcomingEvents(0, 10);
+        eventService.createEvent(new EventRequestDTO("Evento Teste", "Descrição do evento", new Date().getTime(), "Cidade Teste", "UF", true, "https://evento.com", null));
+        eventService.getUpcomingEvents(0, 10);
+
+        verify(repository, times(2)).findUpcomingEvents(any(Date.class), eq(pageable));
+    }
+
+    @Test
+    void test_shouldReturnEventDetailsWithoutCoupons() {
+        UUID eventId = UUID.randomUUID();
+        EventDetailsProjection withoutCoupon = detailsRow(eventId, null, null);
+
+        when(repository.findEventDetails(eq(eventId), any(Date.class))).thenReturn(List.of(withoutCoupon));
+
+        EventDetailsDTO result = eventService.getEventDetails(eventId);
+
+        assertTrue(result.coupons().isEmpty());
+    }
+
+    @Test
+    void test_shouldThrowExceptionWhenEventDetailsNotFound() {
+        UUID eventId = UUID.randomUUID();
+
+        when(repository.findEventDetails(eq(eventId), any(Date.class))).thenReturn(Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventDetails(eventId));
     }
 
     @Test
@@ -116,47 +202,123 @@ class EventServiceTest {
         // Use a mesma chave de administrador configurada
         eventService.deleteEvent(eventId, adminKey);
 
+        verify(listingRepository, times(1)).deleteListing(eventId);
         verify(repository, times(1)).delete(event);
+        verify(searchIndex, times(1)).remove(eventId);
     }
 
     @Test
-    void test_shouldReturnMatchingEvents() {
+    void test_shouldReturnMatchingEventsInIndexOrder() {
         String title = "Evento Teste";
-        List<EventAddressProjection> events = List.of(mock(EventAddressProjection.class));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        EventAddressProjection firstEvent = mock(EventAddressProjection.class);
+        EventAddressProjection secondEvent = mock(EventAddressProjection.class);
+        when(firstEvent.getId()).thenReturn(first);
+        when(secondEvent.getId()).thenReturn(second);
 
-        when(repository.findEventsByTitle(title)).thenReturn(events);
+        when(searchIndex.search(title, 0, 10)).thenReturn(List.of(first, second));
+        when(repository.findEventsByIds(List.of(first, second))).thenReturn(List.of(secondEvent, firstEvent));
 
-        List<EventResponseDTO> result = eventService.searchEvents(title);
+        List<EventResponseDTO> result = eventService.searchEvents(title, 0, 10);
 
-        assertFalse(result.isEmpty());
-        verify(repository, times(1)).findEventsByTitle(title);
+        assertEquals(List.of(first, second), result.stream().map(EventResponseDTO::id).toList());
+        verify(repository, times(1)).findEventsByIds(List.of(first, second));
+    }
+
+    @Test
+    void test_shouldNotQueryDatabaseWhenNothingMatches() {
+        when(searchIndex.search("xyz", 0, 10)).thenReturn(List.of());
+
+        List<EventResponseDTO> result = eventService.searchEvents("xyz", 0, 10);
+
+        assertTrue(result.isEmpty());
+        verify(repository, never()).findEventsByIds(any());
     }
 
     @Test
     void test_shouldReturnFilteredEvents() {
-        Pageable pageable = PageRequest.of(0, 10);
+        LocationFilter location = LocationFilter.of("Cidade Teste", "UF", LocationFilter.Match.PREFIX);
         List<EventAddressProjection> events = List.of(mock(EventAddressProjection.class));
-        Page<EventAddressProjection> eventsPage = new PageImpl<>(events);
 
-        when(repository.findFilteredEvents(anyString(), anyString(), any(Date.class), any(Date.class), eq(pageable))).thenReturn(eventsPage);
+        when(filterRepository.findFilteredEvents(eq(location), any(Date.class), any(Date.class), eq(0), eq(10))).thenReturn(events);
 
-        List<EventResponseDTO> result = eventService.getFilteredEvents(0, 10, "Cidade Teste", "UF", new Date(), new Date());
+        List<EventResponseDTO> result = eventService.getFilteredEvents(0, 10, location, new Date(), new Date());
 
         assertFalse(result.isEmpty());
-        verify(repository, times(1)).findFilteredEvents(anyString(), anyString(), any(Date.class), any(Date.class), eq(pageable));
+        verify(filterRepository, times(1)).findFilteredEvents(eq(location), any(Date.class), any(Date.class), eq(0), eq(10));
     }
 
     @Test
-    void test_shouldReturnUrlOnUploadImage() throws Exception {
-        MultipartFile multipartFile = mock(MultipartFile.class);
-        when(multipartFile.getBytes()).thenReturn(new byte[0]);
-        when(multipartFile.getOriginalFilename()).thenReturn("imagem.jpg");
-        when(s3Utilities.getUrl(any(GetUrlRequest.class))).thenReturn(URI.create("https://s3.amazonaws.com/teste/imagem.jpg").toURL());
+    void test_shouldSeekFilteredEventsAfterCursor() {
+        EventCursor cursor = new EventCursor(new Date(), UUID.randomUUID());
+        LocationFilter location = LocationFilter.of("Cidade Teste", "UF", LocationFilter.Match.PREFIX);
+        List<EventAddressProjection> events = List.of(mock(EventAddressProjection.class));
 
-        ReflectionTestUtils.setField(eventService, "bucketName", bucketName);
-        String result = ReflectionTestUtils.invokeMethod(eventService, "uploadImg", multipartFile);
+        when(filterRepository.findFilteredEventsAfter(eq(location), any(Date.class), any(Date.class), eq(cursor), eq(10))).thenReturn(events);
 
-        assertNotNull(result);
-        assertTrue(result.contains("https://s3.amazonaws.com"));
+        List<EventResponseDTO> result = eventService.getFilteredEvents(cursor, 10, location, new Date(), new Date());
+
+        assertEquals(1, result.size());
+        verify(filterRepository, never()).findFilteredEvents(any(), any(Date.class), any(Date.class), anyInt(), anyInt());
+    }
+
+    @Test
+    void test_shouldFilterEventsInMemoryWhenIndexCoversDates() {
+        LocationFilter location = LocationFilter.of("Recife", "PE", LocationFilter.Match.EXACT);
+        Date startDate = new Date();
+        Date endDate = new Date(startDate.getTime() + 86_400_000L);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        EventAddressProjection firstEvent = mock(EventAddressProjection.class);
+        when(firstEvent.getId()).thenReturn(first);
+        EventAddressProjection secondEvent = mock(EventAddressProjection.class);
+        when(secondEvent.getId()).thenReturn(second);
+
+        when(filterIndex.covers(startDate)).thenReturn(true);
+        when(filterIndex.filter(location, startDate, endDate, 0, 10)).thenReturn(List.of(first, second));
+        when(repository.findEventsByIds(List.of(first, second))).thenReturn(List.of(secondEvent, firstEvent));
+
+        List<EventResponseDTO> result = eventService.getFilteredEvents(0, 10, location, startDate, endDate);
+
+        assertEquals(List.of(first, second), result.stream().map(EventResponseDTO::id).toList());
+        verify(filterRepository, never()).findFilteredEvents(any(), any(Date.class), any(Date.class), anyInt(), anyInt());
+    }
+
+    @Test
+    void test_shouldUploadImageOnCreate() {
+        MockMultipartFile image = new MockMultipartFile("image", "imagem.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        EventRequestDTO requestDTO = new EventRequestDTO("Evento Teste", "Descrição do evento", new Date().getTime(), "Cidade Teste", "UF", true, "https://evento.com", image);
+
+        when(imageUploadService.upload(image)).thenReturn(Optional.of(
+                new ImageUploadService.UploadedImage("abc-imagem.jpg", "https://s3.amazonaws.com/teste/abc-imagem.jpg")));
+
+        Event savedEvent = eventService.createEvent(requestDTO);
+
+        assertEquals("https://s3.amazonaws.com/teste/abc-imagem.jpg", savedEvent.getImgUrl());
+        verify(imageVariantService, times(1)).generateVariants(savedEvent.getId(), "abc-imagem.jpg");
+    }
+
+    @Test
+    void test_shouldSkipUploadForEmptyImage() {
+        MockMultipartFile image = new MockMultipartFile("image", new byte[0]);
+        EventRequestDTO requestDTO = new EventRequestDTO("Evento Teste", "Descrição do evento", new Date().getTime(), "Cidade Teste", "UF", true, "https://evento.com", image);
+
+        Event savedEvent = eventService.createEvent(requestDTO);
+
+        assertEquals("", savedEvent.getImgUrl());
+        verifyNoInteractions(imageUploadService, imageVariantService);
+    }
+
+    private static EventDetailsProjection detailsRow(UUID eventId, String couponCode, Integer couponDiscount) {
+        EventDetailsProjection row = mock(EventDetailsProjection.class);
+        when(row.getId()).thenReturn(eventId);
+        when(row.getTitle()).thenReturn("Teste de evento");
+        when(row.getCity()).thenReturn("Brasilia");
+        when(row.getUf()).thenReturn("DF");
+        when(row.getCouponCode()).thenReturn(couponCode);
+        when(row.getCouponDiscount()).thenReturn(couponDiscount);
+        when(row.getCouponValid()).thenReturn(couponCode != null ? new Date() : null);
+        return row;
     }
 }
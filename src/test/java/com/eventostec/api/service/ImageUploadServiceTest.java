@@ -0,0 +1,137 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.exceptions.AdmissionRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageUploadServiceTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3Utilities s3Utilities;
+
+    private ImageUploadService imageUploadService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        imageUploadService = new ImageUploadService(s3Client, "test-bucket", 3L * PART_SIZE,
+                new String[]{"image/jpeg", "image/png"}, PART_SIZE, 2, 1_000);
+        when(s3Client.utilities()).thenReturn(s3Utilities);
+        when(s3Utilities.getUrl(any(GetUrlRequest.class))).thenReturn(URI.create("https://s3.amazonaws.com/teste/imagem.jpg").toURL());
+    }
+
+    @Test
+    void test_shouldReturnUrlOnUploadImage() {
+        MockMultipartFile image = new MockMultipartFile("image", "imagem.jpg", "image/jpeg", new byte[1024]);
+
+        Optional<ImageUploadService.UploadedImage> result = imageUploadService.upload(image);
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().url().contains("https://s3.amazonaws.com"));
+        assertTrue(result.get().key().endsWith("-imagem.jpg"));
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void test_shouldUploadLargeImageInParts() {
+        MockMultipartFile image = new MockMultipartFile("image", "poster.png", "image/png", new byte[2 * PART_SIZE + 10]);
+        stubMultipartUpload();
+
+        Optional<ImageUploadService.UploadedImage> result = imageUploadService.upload(image);
+
+        assertTrue(result.isPresent());
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client, times(1)).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void test_shouldAbortMultipartUploadWhenPartFails() {
+        MockMultipartFile image = new MockMultipartFile("image", "poster.png", "image/png", new byte[PART_SIZE + 10]);
+        stubMultipartUpload();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenThrow(S3Exception.builder().message("boom").build());
+
+        Optional<ImageUploadService.UploadedImage> result = imageUploadService.upload(image);
+
+        assertTrue(result.isEmpty());
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void test_shouldAbortMultipartUploadWhenCancelled() {
+        MockMultipartFile image = new MockMultipartFile("image", "poster.png", "image/png", new byte[PART_SIZE + 10]);
+        stubMultipartUpload();
+
+        Thread.currentThread().interrupt();
+        Optional<ImageUploadService.UploadedImage> result = imageUploadService.upload(image);
+
+        assertTrue(Thread.interrupted());
+        assertTrue(result.isEmpty());
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void test_shouldRejectUploadWhenNoBufferFreesUp() throws Exception {
+        imageUploadService = new ImageUploadService(s3Client, "test-bucket", 3L * PART_SIZE,
+                new String[]{"image/jpeg", "image/png"}, PART_SIZE, 0, 10);
+        MockMultipartFile image = new MockMultipartFile("image", "poster.png", "image/png", new byte[PART_SIZE + 10]);
+        stubMultipartUpload();
+
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class, () -> imageUploadService.upload(image));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(1, exception.getRetryAfterSeconds());
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void test_shouldRejectTooLargeImageWithoutReadingIt() throws Exception {
+        MultipartFile image = mock(MultipartFile.class);
+        when(image.getSize()).thenReturn(3L * PART_SIZE + 1);
+        when(image.getContentType()).thenReturn("image/jpeg");
+
+        assertThrows(IllegalArgumentException.class, () -> imageUploadService.upload(image));
+        verify(image, never()).getInputStream();
+        verify(image, never()).getBytes();
+        verifyNoInteractions(s3Client);
+    }
+
+    @Test
+    void test_shouldRejectUnsupportedContentType() {
+        MockMultipartFile file = new MockMultipartFile("image", "script.sh", "text/plain", new byte[10]);
+
+        assertThrows(IllegalArgumentException.class, () -> imageUploadService.upload(file));
+        verifyNoInteractions(s3Client);
+    }
+
+    private void stubMultipartUpload() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-id").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+    }
+}
@@ -0,0 +1,104 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.repositories.EventListingRepository;
+import com.eventostec.api.repositories.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImageVariantServiceTest {
+
+    @Mock
+    private ImageUploadService imageUploadService;
+
+    @Mock
+    private EventRepository repository;
+
+    @Mock
+    private EventListingRepository listingRepository;
+
+    @Mock
+    private EventCache cache;
+
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        imageVariantService = new ImageVariantService(imageUploadService, repository, listingRepository, TransactionOperations.withoutTransaction(), cache, 400, 1200, 0.8f, 1, 10);
+    }
+
+    @Test
+    void test_shouldStoreResizedVariantsAndRecordTheirUrls() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(imageUploadService.open("poster.png")).thenReturn(new ByteArrayInputStream(png(2000, 1000)));
+        when(imageUploadService.store(eq("poster.png-list.jpg"), any(byte[].class), eq("image/jpeg"))).thenReturn("https://s3/poster.png-list.jpg");
+        when(imageUploadService.store(eq("poster.png-detail.jpg"), any(byte[].class), eq("image/jpeg"))).thenReturn("https://s3/poster.png-detail.jpg");
+
+        imageVariantService.createVariants(eventId, "poster.png");
+
+        ArgumentCaptor<byte[]> listVariant = ArgumentCaptor.forClass(byte[].class);
+        verify(imageUploadService).store(eq("poster.png-list.jpg"), listVariant.capture(), eq("image/jpeg"));
+        BufferedImage list = ImageIO.read(new ByteArrayInputStream(listVariant.getValue()));
+        assertEquals(400, list.getWidth());
+        assertEquals(200, list.getHeight());
+
+        verify(repository, times(1)).updateImageVariants(eventId, "https://s3/poster.png-list.jpg", "https://s3/poster.png-detail.jpg");
+        verify(listingRepository, times(1)).updateImgUrl(eventId, "https://s3/poster.png-list.jpg");
+        verify(cache, times(1)).evictDetails(eventId);
+    }
+
+    @Test
+    void test_shouldDecodeLargeImagesSubsampledToTheDetailWidth() throws Exception {
+        when(imageUploadService.open("banner.png")).thenReturn(new ByteArrayInputStream(png(5000, 1000)));
+
+        imageVariantService.createVariants(UUID.randomUUID(), "banner.png");
+
+        ArgumentCaptor<byte[]> detailVariant = ArgumentCaptor.forClass(byte[].class);
+        verify(imageUploadService).store(eq("banner.png-detail.jpg"), detailVariant.capture(), eq("image/jpeg"));
+        BufferedImage detail = ImageIO.read(new ByteArrayInputStream(detailVariant.getValue()));
+        assertEquals(1200, detail.getWidth());
+        assertEquals(240, detail.getHeight());
+    }
+
+    @Test
+    void test_shouldNotUpscaleSmallImages() throws Exception {
+        when(imageUploadService.open("icon.png")).thenReturn(new ByteArrayInputStream(png(100, 50)));
+
+        imageVariantService.createVariants(UUID.randomUUID(), "icon.png");
+
+        ArgumentCaptor<byte[]> detailVariant = ArgumentCaptor.forClass(byte[].class);
+        verify(imageUploadService).store(eq("icon.png-detail.jpg"), detailVariant.capture(), eq("image/jpeg"));
+        assertEquals(100, ImageIO.read(new ByteArrayInputStream(detailVariant.getValue())).getWidth());
+    }
+
+    @Test
+    void test_shouldKeepOriginalWhenImageCannotBeDecoded() {
+        UUID eventId = UUID.randomUUID();
+        when(imageUploadService.open("broken.jpg")).thenReturn(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        imageVariantService.createVariants(eventId, "broken.jpg");
+
+        verify(imageUploadService, never()).store(anyString(), any(byte[].class), anyString());
+        verify(repository, never()).updateImageVariants(any(), any(), any());
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", output);
+        return output.toByteArray();
+    }
+}
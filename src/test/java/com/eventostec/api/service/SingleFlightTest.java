@@ -0,0 +1,124 @@
+package com.eventostec.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+    }
+
+    @Test
+    void test_shouldShareComputationBetweenConcurrentCalls() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.run("test", "key", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "result";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> singleFlight.run("test", "key", () -> {
+                    computations.incrementAndGet();
+                    return "other";
+                })));
+            }
+            while (shared() < 7) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_shouldShareExceptionBetweenConcurrentCalls() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = executor.submit(() -> singleFlight.run("test", "key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalArgumentException("Event not found");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Object> follower = executor.submit(() -> singleFlight.run("test", "key", () -> "other"));
+            while (shared() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+            assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_shouldComputeAgainOnceFinished() {
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.run("test", "key", computations::incrementAndGet);
+        singleFlight.run("test", "key", computations::incrementAndGet);
+
+        assertEquals(2, computations.get());
+        assertEquals(2, meterRegistry.get("singleflight.calls").tag("outcome", "executed").counter().count());
+    }
+
+    @Test
+    void test_shouldNotShareBetweenDifferentKeys() {
+        String result = singleFlight.run("test", "a", () -> singleFlight.run("test", "b", () -> "b"));
+
+        assertEquals("b", result);
+        assertEquals(0, shared());
+    }
+
+    private double shared() {
+        var counter = meterRegistry.find("singleflight.calls").tag("outcome", "shared").counter();
+        return (counter != null) ? counter.count() : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.eventostec.api.service;
+
+import com.eventostec.api.domain.event.EventCursor;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UpcomingPagesSnapshotTest {
+
+    @Mock
+    private EventService eventService;
+
+    private EventCache eventCache;
+    private UpcomingPagesSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        eventCache = new EventCache(100, 60_000, 2, 100, 60_000, 5_000);
+        snapshot = new UpcomingPagesSnapshot(eventService, eventCache, true, 2, 2, 60_000, 1_000);
+    }
+
+    @Test
+    void test_shouldServeSerializedPages() throws IOException {
+        List<EventResponseDTO> events = events(3);
+        when(eventService.loadUpcomingEvents(4)).thenReturn(events);
+
+        snapshot.refresh();
+
+        UpcomingPagesSnapshot.SerializedPage first = snapshot.getPage(0, 2, eventCache.listingsVersion()).orElseThrow();
+        UpcomingPagesSnapshot.SerializedPage second = snapshot.getPage(1, 2, eventCache.listingsVersion()).orElseThrow();
+        String json = new String(first.json(), StandardCharsets.UTF_8);
+        assertTrue(json.contains(events.get(0).id().toString()));
+        assertTrue(json.contains("\"date\":" + events.get(0).date().getTime()));
+        assertEquals(json, gunzip(first.gzip()));
+        assertEquals(EventCursor.of(events.get(1)).encode(), first.nextCursor());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void test_shouldOnlyServeSnapshotPages() {
+        when(eventService.loadUpcomingEvents(4)).thenReturn(events(4));
+
+        snapshot.refresh();
+
+        assertTrue(snapshot.getPage(2, 2, eventCache.listingsVersion()).isEmpty());
+        assertTrue(snapshot.getPage(0, 10, eventCache.listingsVersion()).isEmpty());
+    }
+
+    @Test
+    void test_shouldNotServeSnapshotAfterWrite() {
+        when(eventService.loadUpcomingEvents(4)).thenReturn(events(4));
+        snapshot.refresh();
+
+        eventCache.evictUpcomingPages();
+
+        assertTrue(snapshot.getPage(0, 2, eventCache.listingsVersion()).isEmpty());
+        snapshot.refresh();
+        assertTrue(snapshot.getPage(0, 2, eventCache.listingsVersion()).isPresent());
+        verify(eventService, times(2)).loadUpcomingEvents(4);
+    }
+
+    @Test
+    void test_shouldNotRebuildUnchangedSnapshot() {
+        when(eventService.loadUpcomingEvents(4)).thenReturn(events(4));
+
+        snapshot.refresh();
+        snapshot.refresh();
+
+        verify(eventService, times(1)).loadUpcomingEvents(4);
+    }
+
+    @Test
+    void test_shouldNotServeSnapshotAfterFirstEventStarts() {
+        List<EventResponseDTO> events = List.of(new EventResponseDTO(UUID.randomUUID(), "Teste de evento", "Descrição",
+                new Date(System.currentTimeMillis() - 1), "Brasilia", "DF", false, "https://www.teste.com", ""));
+        when(eventService.loadUpcomingEvents(4)).thenReturn(events);
+
+        snapshot.refresh();
+
+        assertTrue(snapshot.getPage(0, 2, eventCache.listingsVersion()).isEmpty());
+    }
+
+    private static List<EventResponseDTO> events(int count) {
+        long start = System.currentTimeMillis() + 60_000;
+        return IntStream.range(0, count)
+                .mapToObj(i -> new EventResponseDTO(UUID.randomUUID(), "Teste de evento " + i, "Descrição",
+                        new Date(start + i * 1_000L), "Brasilia", "DF", false, "https://www.teste.com", ""))
+                .toList();
+    }
+
+    private static String gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
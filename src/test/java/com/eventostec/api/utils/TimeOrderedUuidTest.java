@@ -0,0 +1,77 @@
+package com.eventostec.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void test_shouldBeVersion7WithTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(TimeOrderedUuid.timestamp(uuid) >= before);
+        assertTrue(TimeOrderedUuid.timestamp(uuid) <= System.currentTimeMillis() + 100);
+    }
+
+    @Test
+    void test_shouldIncreaseWithinSameMillisecondAndWhenClockGoesBack() {
+        long now = System.currentTimeMillis();
+        UUID previous = TimeOrderedUuid.next(now);
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = TimeOrderedUuid.next(i % 2 == 0 ? now : now - 1_000);
+            assertTrue(unsignedCompare(previous, next) < 0, "ids must keep increasing");
+            previous = next;
+        }
+    }
+
+    @Test
+    void test_shouldBeUniqueAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<UUID>>> batches = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                batches.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(TimeOrderedUuid.next());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<UUID> unique = new HashSet<>();
+            for (Future<List<UUID>> batch : batches) {
+                List<UUID> ids = batch.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(unsignedCompare(ids.get(i - 1), ids.get(i)) < 0);
+                }
+                unique.addAll(ids);
+            }
+            assertEquals(80_000, unique.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Byte order, as Postgres compares uuid values.
+     */
+    private static int unsignedCompare(UUID a, UUID b) {
+        int most = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return (most != 0) ? most : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}